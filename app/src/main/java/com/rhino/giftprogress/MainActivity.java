@@ -1,27 +1,26 @@
 package com.rhino.giftprogress;
 
 import android.content.Context;
-import android.content.res.ColorStateList;
 import android.graphics.drawable.Drawable;
-import android.support.v4.graphics.drawable.DrawableCompat;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
 import android.view.View;
 
+import com.rhino.giftprogress.view.GiftIconCache;
 import com.rhino.giftprogress.view.GiftProgressView;
+import com.rhino.giftprogress.view.MarkerEditor;
+import com.rhino.giftprogress.view.MarkerInterval;
 import com.rhino.giftprogress.view.SpaceProgressView;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class MainActivity extends AppCompatActivity {
 
     private GiftProgressView mGiftProgressView;
     private SpaceProgressView mSpaceProgressView;
-    private int mCurrentProgress = 1;
-    private int mCurrentProgress1 = 1;
+    private long mCurrentProgress = 1;
+    private long mCurrentProgress1 = 1;
     private int minMaxSpace = 10;
     private int topDrawableSpace = 5;
+    private Drawable mGiftDrawable;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,6 +38,7 @@ public class MainActivity extends AppCompatActivity {
         });
 
         switchMinMaxProgress1();
+        mSpaceProgressView.setSeekable(true);
         mSpaceProgressView.setOnProgressChangedListener(new SpaceProgressView.OnProgressChangedListener() {
             @Override
             public void onChanged(SpaceProgressView progressView, boolean fromUser, boolean isFinished) {
@@ -83,37 +83,34 @@ public class MainActivity extends AppCompatActivity {
     }
 
 
-    private void switchMinMaxProgress(int progress) {
-        int a = progress / minMaxSpace;
-        int min = a  * minMaxSpace;
-        int max = (a + 1) * minMaxSpace;
+    private void switchMinMaxProgress(long progress) {
+        long a = progress / minMaxSpace;
+        long min = a  * minMaxSpace;
+        long max = (a + 1) * minMaxSpace;
 
         if (mGiftProgressView.getMinProgress() == min && mGiftProgressView.getMaxProgress() == max) {
             return;
         }
-        List<GiftProgressView.TopDrawable> list = new ArrayList<>();
-        int topDrawableCount = minMaxSpace / topDrawableSpace;
-        for (int i = 1; i <= topDrawableCount; i++) {
-            list.add(new GiftProgressView.TopDrawable(min + i*topDrawableSpace, tintDrawable(getResources().getDrawable(R.mipmap.ic_gift), 0xFFFB7E16), 50, 50));
-        }
-        mGiftProgressView.setTopDrawableList(list);
-
-        List<GiftProgressView.ProgressSpace> progressSpaceList = new ArrayList<>();
-        int progressSpaceCount = minMaxSpace / topDrawableSpace;
-        for (int i = 1; i < progressSpaceCount; i++) {
-            progressSpaceList.add(new GiftProgressView.ProgressSpace(min + i*topDrawableSpace, dip2px(getApplicationContext(), 2), 0xFFFFFFFF));
-        }
-        mGiftProgressView.setProgressSpaceList(progressSpaceList);
-
-        List<GiftProgressView.ProgressText> progressTextList = new ArrayList<>();
-        int progressTextCount = minMaxSpace / topDrawableSpace;
-        for (int i = 0; i <= progressTextCount; i++) {
-            progressTextList.add(new GiftProgressView.ProgressText(min + i*topDrawableSpace, (min + i*topDrawableSpace) + "人", 0xFF888888));
+        if (null == mGiftDrawable) {
+            mGiftDrawable = GiftIconCache.getInstance(this).getDrawable(R.mipmap.ic_gift, 0xFFFB7E16, 50, 50);
         }
-        mGiftProgressView.setProgressTextList(progressTextList);
-
-        mGiftProgressView.setMinProgress(min);
-        mGiftProgressView.setMaxProgress(max);
+        final int spaceWidth = dip2px(getApplicationContext(), 2);
+        final long last = max;
+        mGiftProgressView.editMarkers()
+                .setRange(min, max)
+                .generate(min, max, topDrawableSpace, new MarkerEditor.Generator() {
+                    @Override
+                    public void onGenerate(MarkerEditor editor, long progress, int index) {
+                        if (index > 0) {
+                            editor.addTopDrawable(progress, mGiftDrawable, 50, 50);
+                        }
+                        if (index > 0 && progress < last) {
+                            editor.addProgressSpace(progress, spaceWidth, 0xFFFFFFFF);
+                        }
+                        editor.addProgressLabel(progress, 0xFF888888);
+                    }
+                })
+                .apply();
         mGiftProgressView.setProgress(min);
 
     }
@@ -123,30 +120,29 @@ public class MainActivity extends AppCompatActivity {
         int min = 0;
         int max = 6;
 
-        List<SpaceProgressView.ProgressSpace> progressSpaceList = new ArrayList<>();
-        List<SpaceProgressView.Progress> progressList = new ArrayList<>();
-        for (int i = min; i < max; i++) {
-            progressSpaceList.add(new SpaceProgressView.ProgressSpace(1+i, dip2px(getApplicationContext(), 2), 0xFFFFFFFF));
-            progressList.add(new SpaceProgressView.Progress(1+i, 0xFF888888, 0xFFFF0000, 0xFFD9D9D9));
-        }
-        mSpaceProgressView.setProgressList(progressList);
-        mSpaceProgressView.setProgressSpaceList(progressSpaceList);
+        final int spaceWidth = dip2px(getApplicationContext(), 2);
+        MarkerInterval interval = new MarkerInterval(min + 1, max, 1);
+        mSpaceProgressView.setProgressGenerator(interval, new MarkerInterval.Style<SpaceProgressView.Progress>() {
+            @Override
+            public void onStyle(SpaceProgressView.Progress marker, long index) {
+                marker.progressPreColor = 0xFF888888;
+                marker.progressCurrColor = 0xFFFF0000;
+                marker.progressNextColor = 0xFFD9D9D9;
+            }
+        });
+        mSpaceProgressView.setProgressSpaceGenerator(interval, new MarkerInterval.Style<SpaceProgressView.ProgressSpace>() {
+            @Override
+            public void onStyle(SpaceProgressView.ProgressSpace marker, long index) {
+                marker.spaceWidth = spaceWidth;
+                marker.spaceColor = 0xFFFFFFFF;
+            }
+        });
 
         mSpaceProgressView.setMinProgress(min);
         mSpaceProgressView.setMaxProgress(max);
         mSpaceProgressView.setProgress(min);
     }
 
-    public Drawable tintDrawable(Drawable drawable, int color) {
-        return tintDrawable(drawable, ColorStateList.valueOf(color));
-    }
-
-    public Drawable tintDrawable(Drawable drawable, ColorStateList colors) {
-        final Drawable wrappedDrawable = DrawableCompat.wrap(drawable);
-        DrawableCompat.setTintList(wrappedDrawable, colors);
-        return wrappedDrawable;
-    }
-
     private int dip2px(Context ctx, float dpValue) {
         final float scale = ctx.getResources().getDisplayMetrics().density;
         return (int) (dpValue * scale + 0.5f);
@@ -0,0 +1,87 @@
+package com.rhino.giftprogress.view;
+
+import android.view.View;
+
+/**
+ * Promote a progress view to a hardware layer while its progress animates. The view content
+ * still changes on every frame, but with a layer only the dirty area of the texture is
+ * redrawn and the parent composites a single texture, which pays off when the static
+ * content, e.g. hundreds of markers, is heavy. The layer is dropped when the animation ends
+ * or is canceled, so it does not hold GPU memory while idle.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class AnimationLayer {
+
+    /**
+     * Promote only when the view is hardware accelerated and has at least
+     * {@link #DEFAULT_MARKER_THRESHOLD} markers.
+     */
+    public static final int MODE_AUTO = 0;
+    /**
+     * Always promote while animating.
+     */
+    public static final int MODE_ALWAYS = 1;
+    /**
+     * Never promote.
+     */
+    public static final int MODE_NEVER = 2;
+
+    public static final int DEFAULT_MARKER_THRESHOLD = 64;
+
+    private int mMode = MODE_AUTO;
+    private int mMarkerThreshold = DEFAULT_MARKER_THRESHOLD;
+    private boolean mPromoted;
+
+    AnimationLayer() {
+    }
+
+    void setMode(int mode) {
+        if (mode != MODE_AUTO && mode != MODE_ALWAYS && mode != MODE_NEVER) {
+            throw new IllegalArgumentException("unknown mode: " + mode);
+        }
+        this.mMode = mode;
+    }
+
+    void setMarkerThreshold(int markerThreshold) {
+        this.mMarkerThreshold = markerThreshold;
+    }
+
+    boolean isPromoted() {
+        return mPromoted;
+    }
+
+    /**
+     * Called when an animation starts.
+     *
+     * @param view        the view
+     * @param markerCount the count of markers the view draws
+     * @return true if the view is promoted by this call
+     */
+    boolean begin(View view, int markerCount) {
+        if (mPromoted || view.getLayerType() != View.LAYER_TYPE_NONE) {
+            // keep the layer the app has set
+            return false;
+        }
+        if (mMode == MODE_NEVER || (mMode == MODE_AUTO
+                && (!view.isHardwareAccelerated() || markerCount < mMarkerThreshold))) {
+            return false;
+        }
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        mPromoted = true;
+        return true;
+    }
+
+    /**
+     * Called when an animation ends or is canceled, drop the layer if promoted.
+     *
+     * @param view the view
+     */
+    void end(View view) {
+        if (mPromoted) {
+            mPromoted = false;
+            view.setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.rhino.giftprogress.view;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+/**
+ * A process wide, size bounded cache of icon bitmaps which are decoded, scaled and tinted
+ * once per (resource, tint, size). The bitmaps are shared by all views, so never modify or
+ * recycle them. The cache is trimmed when the system is low on memory.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class GiftIconCache implements ComponentCallbacks2 {
+
+    /**
+     * The tint to keep the original colors of the icon.
+     */
+    public static final int NO_TINT = 0;
+
+    private static volatile GiftIconCache sInstance;
+
+    private final Resources mResources;
+    private final LruCache<Key, Bitmap> mCache;
+
+    private GiftIconCache(Context context, int maxBytes) {
+        this.mResources = context.getResources();
+        this.mCache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getRowBytes() * value.getHeight();
+            }
+        };
+    }
+
+    /**
+     * Return the shared cache, created with 1/32 of the max heap the first time.
+     *
+     * @param context Context
+     * @return the cache
+     */
+    public static GiftIconCache getInstance(Context context) {
+        if (null == sInstance) {
+            synchronized (GiftIconCache.class) {
+                if (null == sInstance) {
+                    Context appContext = context.getApplicationContext();
+                    int maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 32);
+                    GiftIconCache cache = new GiftIconCache(appContext, maxBytes);
+                    appContext.registerComponentCallbacks(cache);
+                    sInstance = cache;
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * Return the icon bitmap scaled to the size and tinted.
+     *
+     * @param resId  the drawable resource id
+     * @param tint   the tint color, {@link #NO_TINT} for none
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     * @return the bitmap, null if the resource cannot be decoded
+     */
+    public Bitmap getBitmap(int resId, int tint, int width, int height) {
+        Key key = new Key(resId, tint, width, height);
+        Bitmap bitmap = mCache.get(key);
+        if (null != bitmap) {
+            return bitmap;
+        }
+        bitmap = decode(resId, tint, width, height);
+        if (null != bitmap) {
+            mCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Return a new drawable of the cached icon bitmap, which is drawn without scaling
+     * when its bounds have the same size, e.g. as {@link GiftProgressView.TopDrawable}.
+     *
+     * @param resId  the drawable resource id
+     * @param tint   the tint color, {@link #NO_TINT} for none
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     * @return the drawable, null if the resource cannot be decoded
+     */
+    public Drawable getDrawable(int resId, int tint, int width, int height) {
+        Bitmap bitmap = getBitmap(resId, tint, width, height);
+        return null == bitmap ? null : new BitmapDrawable(mResources, bitmap);
+    }
+
+    public int getHitCount() {
+        return mCache.hitCount();
+    }
+
+    public int getMissCount() {
+        return mCache.missCount();
+    }
+
+    public int getSizeBytes() {
+        return mCache.size();
+    }
+
+    /**
+     * Remove all the bitmaps.
+     */
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            // in the background, or the system is already killing background processes
+            mCache.evictAll();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    /**
+     * Decode, scale and tint the icon.
+     */
+    private Bitmap decode(int resId, int tint, int width, int height) {
+        Bitmap source = BitmapFactory.decodeResource(mResources, resId);
+        if (null == source) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
+        if (NO_TINT != tint) {
+            paint.setColorFilter(new PorterDuffColorFilter(tint, PorterDuff.Mode.SRC_IN));
+        }
+        new Canvas(bitmap).drawBitmap(source, null, new Rect(0, 0, width, height), paint);
+        source.recycle();
+        return bitmap;
+    }
+
+    private static final class Key {
+        final int resId;
+        final int tint;
+        final int width;
+        final int height;
+
+        Key(int resId, int tint, int width, int height) {
+            this.resId = resId;
+            this.tint = tint;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resId == key.resId && tint == key.tint
+                    && width == key.width && height == key.height;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + tint;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return result;
+        }
+    }
+}
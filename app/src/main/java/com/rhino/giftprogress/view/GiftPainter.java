@@ -0,0 +1,118 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Draw the thumb, the top drawables and the progress texts of a gift progress bar. It holds
+ * the mutable paint state, so every view and every rendering thread uses its own instance.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class GiftPainter {
+
+    static final int TEXT_SIZE = 30;
+
+    private final int mProgressColor;
+    private final int mThumbColor;
+    private final Paint mTextPaint;
+    private final Paint mThumbPaint;
+    private final Rect mMarkerRect = new Rect();
+    private final Path mThumbPath = new Path();
+
+    GiftPainter(int progressColor, int thumbColor) {
+        mProgressColor = progressColor;
+        mThumbColor = thumbColor;
+
+        mTextPaint = new Paint();
+        mTextPaint.setStyle(Paint.Style.FILL);
+        mTextPaint.setColor(progressColor);
+        mTextPaint.setAntiAlias(true);
+        mTextPaint.setTextSize(TEXT_SIZE);
+
+        mThumbPaint = new Paint();
+        mThumbPaint.setStyle(Paint.Style.FILL);
+        mThumbPaint.setAntiAlias(true);
+        mThumbPaint.setTextSize(TEXT_SIZE);
+    }
+
+    /**
+     * @return the paint of the progress texts, to measure them
+     */
+    Paint getTextPaint() {
+        return mTextPaint;
+    }
+
+    /**
+     * @return the paint of the thumb and the progress spaces
+     */
+    Paint getThumbPaint() {
+        return mThumbPaint;
+    }
+
+    /**
+     * Draw the progress thumb, its text below and the arrow above.
+     *
+     * @param canvas    Canvas
+     * @param thumbRect the bounds of the thumb
+     * @param text      the thumb text
+     * @param textWidth the width of the thumb text
+     */
+    void drawThumb(Canvas canvas, Rect thumbRect, String text, int textWidth) {
+        mThumbPaint.setColor(mThumbColor);
+        canvas.drawRect(thumbRect, mThumbPaint);
+
+        mThumbPaint.setColor(0xFFAAAAAA);
+        mThumbPaint.setTextSize(TEXT_SIZE);
+        canvas.drawText(text, thumbRect.centerX() - textWidth / 2, thumbRect.bottom + 30 + 5, mThumbPaint);
+
+        mThumbPaint.setColor(mProgressColor);
+        mThumbPath.rewind();
+        mThumbPath.moveTo(thumbRect.centerX(), thumbRect.top - 15);
+        mThumbPath.lineTo(thumbRect.centerX() - 15, thumbRect.top - 40);
+        mThumbPath.lineTo(thumbRect.centerX() + 15, thumbRect.top - 40);
+        mThumbPath.lineTo(thumbRect.centerX(), thumbRect.top - 15);
+        mThumbPath.close();
+        canvas.drawPath(mThumbPath, mThumbPaint);
+    }
+
+    /**
+     * Draw a top drawable above the track.
+     *
+     * @param canvas   Canvas
+     * @param fillRect the bounds of the fill
+     * @param drawable the drawable, its bounds are changed
+     * @param width    the width of the drawable
+     * @param height   the height of the drawable
+     * @param x        the center of the drawable
+     */
+    void drawTopDrawable(Canvas canvas, Rect fillRect, Drawable drawable, int width, int height, int x) {
+        mMarkerRect.set(x - width / 2,
+                fillRect.top - height - 10,
+                x + width / 2,
+                fillRect.top - 10);
+        drawable.setBounds(mMarkerRect);
+        drawable.draw(canvas);
+    }
+
+    /**
+     * Draw a progress text below the track.
+     *
+     * @param canvas    Canvas
+     * @param fillRect  the bounds of the fill
+     * @param text      the text
+     * @param textColor the color of the text
+     * @param x         the center of the text
+     * @param textWidth the width of the text
+     */
+    void drawProgressText(Canvas canvas, Rect fillRect, String text, int textColor, int x, int textWidth) {
+        if (mTextPaint.getColor() != textColor) {
+            mTextPaint.setColor(textColor);
+        }
+        canvas.drawText(text, x - textWidth / 2, fillRect.bottom + 30 + 5, mTextPaint);
+    }
+}
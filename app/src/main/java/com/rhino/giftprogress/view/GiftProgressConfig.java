@@ -0,0 +1,153 @@
+package com.rhino.giftprogress.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the range and markers of {@link GiftProgressView}, applied in
+ * one call with {@link GiftProgressView#setConfig(GiftProgressConfig)}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class GiftProgressConfig {
+
+    private final long mMinProgress;
+    private final long mMaxProgress;
+    private final List<GiftProgressView.TopDrawable> mTopDrawableList;
+    private final List<GiftProgressView.ProgressSpace> mProgressSpaceList;
+    private final List<GiftProgressView.ProgressText> mProgressTextList;
+
+    private GiftProgressConfig(Builder builder) {
+        this.mMinProgress = builder.mMinProgress;
+        this.mMaxProgress = builder.mMaxProgress;
+        this.mTopDrawableList = Collections.unmodifiableList(new ArrayList<>(builder.mTopDrawableList));
+        this.mProgressSpaceList = Collections.unmodifiableList(new ArrayList<>(builder.mProgressSpaceList));
+        this.mProgressTextList = Collections.unmodifiableList(new ArrayList<>(builder.mProgressTextList));
+    }
+
+    public long getMinProgress() {
+        return mMinProgress;
+    }
+
+    public long getMaxProgress() {
+        return mMaxProgress;
+    }
+
+    public List<GiftProgressView.TopDrawable> getTopDrawableList() {
+        return mTopDrawableList;
+    }
+
+    public List<GiftProgressView.ProgressSpace> getProgressSpaceList() {
+        return mProgressSpaceList;
+    }
+
+    public List<GiftProgressView.ProgressText> getProgressTextList() {
+        return mProgressTextList;
+    }
+
+    /**
+     * Return true if the two lists hold top drawables with the same values,
+     * the drawables are compared by instance.
+     */
+    static boolean sameTopDrawables(List<GiftProgressView.TopDrawable> a,
+                                    List<GiftProgressView.TopDrawable> b) {
+        if (a == b) {
+            return true;
+        }
+        if (null == a || null == b || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0, size = a.size(); i < size; i++) {
+            GiftProgressView.TopDrawable x = a.get(i);
+            GiftProgressView.TopDrawable y = b.get(i);
+            if (x.progress != y.progress || x.drawable != y.drawable
+                    || x.width != y.width || x.height != y.height) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the two lists hold progress spaces with the same values.
+     */
+    static boolean sameProgressSpaces(List<GiftProgressView.ProgressSpace> a,
+                                      List<GiftProgressView.ProgressSpace> b) {
+        if (a == b) {
+            return true;
+        }
+        if (null == a || null == b || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0, size = a.size(); i < size; i++) {
+            GiftProgressView.ProgressSpace x = a.get(i);
+            GiftProgressView.ProgressSpace y = b.get(i);
+            if (x.progress != y.progress || x.spaceWidth != y.spaceWidth
+                    || x.spaceColor != y.spaceColor) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the two lists hold progress texts with the same values.
+     */
+    static boolean sameProgressTexts(List<GiftProgressView.ProgressText> a,
+                                     List<GiftProgressView.ProgressText> b) {
+        if (a == b) {
+            return true;
+        }
+        if (null == a || null == b || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0, size = a.size(); i < size; i++) {
+            GiftProgressView.ProgressText x = a.get(i);
+            GiftProgressView.ProgressText y = b.get(i);
+            if (x.progress != y.progress || x.textColor != y.textColor
+                    || !x.text.equals(y.text)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class Builder {
+        private long mMinProgress;
+        private long mMaxProgress;
+        private List<GiftProgressView.TopDrawable> mTopDrawableList = Collections.emptyList();
+        private List<GiftProgressView.ProgressSpace> mProgressSpaceList = Collections.emptyList();
+        private List<GiftProgressView.ProgressText> mProgressTextList = Collections.emptyList();
+
+        public Builder setRange(long minProgress, long maxProgress) {
+            this.mMinProgress = minProgress;
+            this.mMaxProgress = maxProgress;
+            return this;
+        }
+
+        public Builder setTopDrawableList(List<GiftProgressView.TopDrawable> list) {
+            this.mTopDrawableList = list;
+            return this;
+        }
+
+        public Builder setProgressSpaceList(List<GiftProgressView.ProgressSpace> list) {
+            this.mProgressSpaceList = list;
+            return this;
+        }
+
+        public Builder setProgressTextList(List<GiftProgressView.ProgressText> list) {
+            this.mProgressTextList = list;
+            return this;
+        }
+
+        public GiftProgressConfig build() {
+            if (mMaxProgress <= mMinProgress) {
+                throw new IllegalArgumentException("maxProgress " + mMaxProgress
+                        + " <= minProgress " + mMinProgress);
+            }
+            return new GiftProgressConfig(this);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * Draw a gift progress bar for a {@link GiftProgressConfig} and a progress without a View,
+ * e.g. to build share images. It looks the same as {@link GiftProgressView} at that progress.
+ * <p>
+ * The renderer may be used from any thread and from many threads at once, every thread draws
+ * with its own paints, track and copies of the top drawables, so a config can be rendered while
+ * a {@link GiftProgressView} shows it. The top drawables must have a
+ * {@link Drawable.ConstantState} to be copied, and the configs must not be changed while they
+ * are rendered.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class GiftProgressRenderer {
+
+    private final int mProgressBackgroundColor;
+    private final int mProgressColor;
+    private final int mThumbColor;
+    private final int mProgressCorner;
+    private final int mProgressHeight;
+    private final int mThumbWidth;
+
+    private final ThreadLocal<RenderState> mRenderState = new ThreadLocal<RenderState>() {
+        @Override
+        protected RenderState initialValue() {
+            return new RenderState(GiftProgressRenderer.this);
+        }
+    };
+
+    private GiftProgressRenderer(Builder builder) {
+        this.mProgressBackgroundColor = builder.mProgressBackgroundColor;
+        this.mProgressColor = builder.mProgressColor;
+        this.mThumbColor = builder.mThumbColor;
+        this.mProgressCorner = builder.mProgressCorner;
+        this.mProgressHeight = builder.mProgressHeight;
+        this.mThumbWidth = builder.mThumbWidth;
+    }
+
+    /**
+     * Draw the progress bar into a new bitmap.
+     *
+     * @param config   the range and markers
+     * @param progress the progress, clamped to the range
+     * @param width    the width of the bitmap
+     * @param height   the height of the bitmap
+     * @return the bitmap
+     * @throws IllegalArgumentException if a top drawable has no {@link Drawable.ConstantState}
+     */
+    public Bitmap render(GiftProgressConfig config, long progress, int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        render(config, progress, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Clear the bitmap and draw the progress bar into it, the bitmap can be reused
+     * for the next image.
+     *
+     * @param config   the range and markers
+     * @param progress the progress, clamped to the range
+     * @param bitmap   a mutable bitmap
+     */
+    public void render(GiftProgressConfig config, long progress, Bitmap bitmap) {
+        bitmap.eraseColor(Color.TRANSPARENT);
+        RenderState state = mRenderState.get();
+        Canvas canvas = state.mCanvas;
+        canvas.setBitmap(bitmap);
+        try {
+            state.draw(canvas, bitmap.getWidth(), bitmap.getHeight(), config, progress);
+        } finally {
+            canvas.setBitmap(null);
+        }
+    }
+
+    /**
+     * Draw the progress bar into the canvas, the same as a {@link GiftProgressView}
+     * of the given size at the origin of the canvas.
+     *
+     * @param canvas   Canvas
+     * @param width    the width of the progress bar
+     * @param height   the height of the progress bar
+     * @param config   the range and markers
+     * @param progress the progress, clamped to the range
+     */
+    public void draw(Canvas canvas, int width, int height, GiftProgressConfig config, long progress) {
+        mRenderState.get().draw(canvas, width, height, config, progress);
+    }
+
+    /**
+     * The drawing state of one thread.
+     */
+    private static final class RenderState {
+
+        private static final int MAX_DRAWABLE_COUNT = 64;
+
+        private final int mThumbWidth;
+        private final ProgressTrack mTrack;
+        private final SpaceLayer mSpaceLayer = new SpaceLayer();
+        private final GiftPainter mPainter;
+        private final TextMeasureCache mTextMeasureCache = new TextMeasureCache();
+        private final ProgressLabelCache mLabels = new ProgressLabelCache();
+        // Weak keys, so a pool thread does not keep the drawables of old configs alive.
+        private final WeakHashMap<Drawable, Drawable> mDrawables = new WeakHashMap<>();
+        private final Canvas mCanvas = new Canvas();
+        private final Rect mThumbRect = new Rect();
+
+        private long[] mSpaceValues = new long[0];
+        private int[] mSpaceWidths = new int[0];
+        private int[] mSpaceColors = new int[0];
+
+        RenderState(GiftProgressRenderer renderer) {
+            mThumbWidth = renderer.mThumbWidth;
+            mTrack = new ProgressTrack(renderer.mProgressHeight, renderer.mProgressCorner,
+                    renderer.mProgressBackgroundColor, renderer.mProgressColor);
+            mPainter = new GiftPainter(renderer.mProgressColor, renderer.mThumbColor);
+        }
+
+        void draw(Canvas canvas, int width, int height, GiftProgressConfig config, long progress) {
+            ProgressTrack track = mTrack;
+            track.setRange(config.getMinProgress(), config.getMaxProgress());
+            if (!track.setSize(width, height)) {
+                return;
+            }
+            progress = track.clampProgress(progress);
+            track.setProgress(progress);
+            float coord = track.checkCoord(track.progress2Coord(progress));
+            track.moveFill(coord);
+            mThumbRect.set((int) (coord - mThumbWidth / 2), track.getFillRect().top,
+                    (int) (coord + mThumbWidth / 2), track.getFillRect().bottom);
+            updateSpaces(config.getProgressSpaceList());
+
+            String thumbText = mLabels.get(progress);
+            int thumbTextWidth = (int) mPainter.getThumbPaint().measureText(thumbText);
+
+            canvas.save();
+            canvas.translate(width / 2, height / 2);
+            track.drawBackground(canvas);
+            track.drawFill(canvas);
+            mPainter.drawThumb(canvas, mThumbRect, thumbText, thumbTextWidth);
+            drawTopDrawables(canvas, config.getTopDrawableList());
+            mSpaceLayer.draw(canvas, track, mPainter.getThumbPaint(), progress);
+            drawProgressTexts(canvas, config.getProgressTextList());
+            canvas.restore();
+        }
+
+        private void updateSpaces(List<GiftProgressView.ProgressSpace> list) {
+            int size = list.size();
+            if (mSpaceValues.length < size) {
+                mSpaceValues = new long[size];
+                mSpaceWidths = new int[size];
+                mSpaceColors = new int[size];
+            }
+            for (int i = 0; i < size; i++) {
+                GiftProgressView.ProgressSpace progressSpace = list.get(i);
+                mSpaceValues[i] = progressSpace.progress;
+                mSpaceWidths[i] = progressSpace.spaceWidth;
+                mSpaceColors[i] = progressSpace.spaceColor;
+            }
+            mSpaceLayer.setSpaces(size, mSpaceValues, mSpaceWidths, mSpaceColors);
+            mSpaceLayer.updateCoords(mTrack);
+        }
+
+        private void drawTopDrawables(Canvas canvas, List<GiftProgressView.TopDrawable> list) {
+            ProgressTrack track = mTrack;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                GiftProgressView.TopDrawable topDrawable = list.get(i);
+                if (null == topDrawable.drawable || track.getProgress() == topDrawable.progress) {
+                    continue;
+                }
+                int x = (int) track.progress2Coord(topDrawable.progress);
+                mPainter.drawTopDrawable(canvas, track.getFillRect(), obtainDrawable(topDrawable.drawable),
+                        topDrawable.width, topDrawable.height, x);
+            }
+        }
+
+        private void drawProgressTexts(Canvas canvas, List<GiftProgressView.ProgressText> list) {
+            ProgressTrack track = mTrack;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                GiftProgressView.ProgressText progressText = list.get(i);
+                if (track.getProgress() == progressText.progress) {
+                    continue;
+                }
+                int x = (int) track.progress2Coord(progressText.progress);
+                int textWidth = (int) mTextMeasureCache.measureText(mPainter.getTextPaint(), progressText.text);
+                mPainter.drawProgressText(canvas, track.getFillRect(), progressText.text,
+                        progressText.textColor, x, textWidth);
+            }
+        }
+
+        /**
+         * Return the copy of the drawable owned by this thread, so its bounds and state can be
+         * changed without affecting the other threads or a view showing the same config.
+         *
+         * @param drawable the drawable of the config
+         * @return the drawable to draw
+         * @throws IllegalArgumentException if the drawable has no constant state
+         */
+        private Drawable obtainDrawable(Drawable drawable) {
+            Drawable copy = mDrawables.get(drawable);
+            if (null == copy) {
+                Drawable.ConstantState state = drawable.getConstantState();
+                if (null == state) {
+                    throw new IllegalArgumentException("can not copy " + drawable
+                            + " without a constant state");
+                }
+                copy = state.newDrawable().mutate();
+                if (mDrawables.size() >= MAX_DRAWABLE_COUNT) {
+                    mDrawables.clear();
+                }
+                mDrawables.put(drawable, copy);
+            }
+            return copy;
+        }
+    }
+
+    public static class Builder {
+        private int mProgressBackgroundColor = 0xFFD9D9D9;
+        private int mProgressColor = 0xFFFB7E16;
+        private int mThumbColor = 0xFFFFFFFF;
+        private int mProgressCorner = 6;
+        private int mProgressHeight = 6;
+        private int mThumbWidth = 6;
+
+        public Builder setProgressBackgroundColor(int color) {
+            this.mProgressBackgroundColor = color;
+            return this;
+        }
+
+        public Builder setProgressColor(int color) {
+            this.mProgressColor = color;
+            return this;
+        }
+
+        public Builder setThumbColor(int color) {
+            this.mThumbColor = color;
+            return this;
+        }
+
+        public Builder setProgressCorner(int corner) {
+            this.mProgressCorner = corner;
+            return this;
+        }
+
+        public Builder setProgressHeight(int height) {
+            this.mProgressHeight = height;
+            return this;
+        }
+
+        public Builder setThumbWidth(int width) {
+            this.mThumbWidth = width;
+            return this;
+        }
+
+        public GiftProgressRenderer build() {
+            return new GiftProgressRenderer(this);
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package com.rhino.giftprogress.view;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Path;
+import android.graphics.Color;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.GradientDrawable;
-import android.os.Build;
 import android.util.AttributeSet;
 import android.view.View;
-import android.view.animation.DecelerateInterpolator;
 
 import com.rhino.giftprogress.R;
 
@@ -33,35 +29,69 @@ public class GiftProgressView extends View {
     private static final int DEFAULT_PROGRESS_CORNER = 6;
     private static final int DEFAULT_PROGRESS_HEIGHT = 6;
     private static final int DEFAULT_THUMB_WIDTH = 6;
+    private static final int DEFAULT_STATIC_LAYER_MAX_BYTES = 4 * 1024 * 1024;
     private int mProgressBackgroundColor = DEFAULT_PROGRESS_BACKGROUND_COLOR;
     private int mProgressColor = DEFAULT_PROGRESS_COLOR;
     private int mThumbColor = DEFAULT_THUMB_COLOR;
-    private int mMinProgress = DEFAULT_MIN_PROGRESS;
-    private int mMaxProgress = DEFAULT_MAX_PROGRESS;
     private int mProgressCorner = DEFAULT_PROGRESS_CORNER;
     private int mProgressHeight = DEFAULT_PROGRESS_HEIGHT;
     private int mThumbWidth = DEFAULT_THUMB_WIDTH;
 
-    private int mProgressLength;
-    private int mCurrProgress;
-    private int mLastProgress;
+    private long mLastProgress;
 
     private int mViewHeight;
     private int mViewWidth;
-    private GradientDrawable mProgressBgDrawable;
-    private GradientDrawable mProgressDrawable;
-    private Paint mSectionPointPaint;
-    private Paint mThumbPaint;
-    private Rect mProgressBackgroundRect;
-    private Rect mProgressRect;
+    private ProgressTrack mTrack;
+    private SpaceLayer mSpaceLayer;
+    private ProgressAnimator mAnimator;
+    private GiftPainter mPainter;
     private Rect mThumbDestRect;
+    private Rect mDirtyRect;
+    private Rect mMovingRect;
 
-    private ValueAnimator mToDestValueAnimator;
+    private boolean mStaticLayerEnabled = false;
+    private int mStaticLayerMaxBytes = DEFAULT_STATIC_LAYER_MAX_BYTES;
+    private boolean mStaticLayerDirty = true;
+    private Bitmap mStaticLayerBitmap;
+    private Canvas mStaticLayerCanvas;
+
+    private TextMeasureCache mTextMeasureCache;
+    private String mThumbText;
+    private long mThumbTextProgress;
+    private int mThumbTextWidth;
+
+    private volatile boolean mCoalesceUpdates = false;
+    private ProgressCoalescer mProgressCoalescer;
+    private volatile ProgressMetrics mMetrics;
+    private MarkerEditor mMarkerEditor;
 
     private List<ProgressSpace> mProgressSpaceList = new ArrayList<>();
     private List<ProgressText> mProgressTextList = new ArrayList<>();
     private List<TopDrawable> mTopDrawableList = new ArrayList<>();
 
+    private MarkerInterval mTopDrawableInterval;
+    private MarkerInterval mProgressTextInterval;
+    private MarkerInterval.Style<TopDrawable> mTopDrawableStyle;
+    private MarkerInterval.Style<ProgressText> mProgressTextStyle;
+    private TopDrawable mGeneratedTopDrawable = new TopDrawable(0, null, 0, 0);
+    private ProgressSpace mGeneratedProgressSpace = new ProgressSpace(0, 0, 0);
+    private ProgressText mGeneratedProgressText = new ProgressText(0, null, 0);
+    private ProgressLabelCache mGeneratedLabels;
+    private LabelWidthCache mGeneratedTextWidths;
+    private Rect mClipRect;
+    private int mTopDrawableMaxWidth = -1;
+    private int mProgressTextMaxWidth = -1;
+    private int mGeneratedMarkerMargin;
+
+    private long[] mProgressSpaceValues = new long[0];
+    private int[] mProgressSpaceWidths = new int[0];
+    private int[] mProgressSpaceColors = new int[0];
+    private int[] mProgressTextCoords = new int[0];
+    private int[] mTopDrawableCoords = new int[0];
+    private int[] mProgressTextWidths = new int[0];
+    private MarkerIndex mTopDrawableIndex = new MarkerIndex();
+    private MarkerIndex mProgressTextIndex = new MarkerIndex();
+
     private boolean mIsFromUser = false;
     private OnProgressChangedListener mOnProgressListener;
 
@@ -80,6 +110,8 @@ public class GiftProgressView extends View {
     }
 
     private void init(Context context, AttributeSet attrs) {
+        long minProgress = DEFAULT_MIN_PROGRESS;
+        long maxProgress = DEFAULT_MAX_PROGRESS;
         if (null != attrs) {
             TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.GiftProgressView);
             mProgressHeight = typedArray.getDimensionPixelSize(R.styleable.GiftProgressView_csb_progress_height,
@@ -92,35 +124,46 @@ public class GiftProgressView extends View {
                     DEFAULT_PROGRESS_BACKGROUND_COLOR);
             mProgressColor = typedArray.getColor(R.styleable.GiftProgressView_csb_progress_color,
                     DEFAULT_PROGRESS_COLOR);
-            mMinProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_min_value,
+            minProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_min_value,
                     DEFAULT_MIN_PROGRESS);
-            mMaxProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_max_value,
+            maxProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_max_value,
                     DEFAULT_MAX_PROGRESS);
             typedArray.recycle();
         }
 
-        mSectionPointPaint = new Paint();
-        mSectionPointPaint.setStyle(Paint.Style.FILL);
-        mSectionPointPaint.setColor(mProgressColor);
-        mSectionPointPaint.setAntiAlias(true);
-
-        mThumbPaint = new Paint();
-        mThumbPaint.setStyle(Paint.Style.FILL);
-        mThumbPaint.setAntiAlias(true);
+        mPainter = new GiftPainter(mProgressColor, mThumbColor);
+        mTrack = new ProgressTrack(mProgressHeight, mProgressCorner, mProgressBackgroundColor, mProgressColor);
+        mTrack.setRange(minProgress, maxProgress);
+        mTrack.setProgress(minProgress);
+        mSpaceLayer = new SpaceLayer();
+        mAnimator = new ProgressAnimator(this, mTrack, new ProgressAnimator.Target() {
+            @Override
+            public void onMove(float coord) {
+                moveToPoint(coord);
+            }
 
-        mProgressBgDrawable = new GradientDrawable();
-        mProgressBgDrawable.setShape(GradientDrawable.RECTANGLE);
-        mProgressBgDrawable.setColor(mProgressBackgroundColor);
+            @Override
+            public int getMarkerCount() {
+                return GiftProgressView.this.getMarkerCount();
+            }
 
-        mProgressDrawable = new GradientDrawable();
-        mProgressDrawable.setShape(GradientDrawable.RECTANGLE);
-        mProgressDrawable.setColor(mProgressColor);
+            @Override
+            public ProgressMetrics getMetrics() {
+                return mMetrics;
+            }
+        });
 
-        mProgressBackgroundRect = new Rect();
-        mProgressRect = new Rect();
         mThumbDestRect = new Rect();
-
-        mCurrProgress = mMinProgress;
+        mTextMeasureCache = new TextMeasureCache();
+        mProgressCoalescer = new ProgressCoalescer(new ProgressCoalescer.Target() {
+            @Override
+            public void onProgress(long progress, boolean anim, boolean fromUser) {
+                applyProgress(progress, anim, fromUser);
+            }
+        });
+        mDirtyRect = new Rect();
+        mMovingRect = new Rect();
+        mClipRect = new Rect();
     }
 
     @Override
@@ -143,9 +186,50 @@ public class GiftProgressView extends View {
         setMeasuredDimension(mViewWidth, mViewHeight);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mProgressCoalescer.resume();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mProgressCoalescer.cancel();
+        mAnimator.finish();
+        releaseStaticLayer();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        ProgressMetrics metrics = mMetrics;
+        if (null == metrics) {
+            drawLayers(canvas);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        drawLayers(canvas);
+        metrics.onDraw(System.nanoTime() - startNanos,
+                mAnimator.isRunning(),
+                mAnimator.isLayerPromoted());
+    }
+
+    /**
+     * Draw all the layers.
+     *
+     * @param canvas Canvas
+     */
+    private void drawLayers(Canvas canvas) {
+        if (drawStaticLayer(canvas)) {
+            canvas.save();
+            canvas.translate(mViewWidth / 2, mViewHeight / 2);
+            drawProgress(canvas);
+            drawThumb(canvas);
+            drawProgressSpace(canvas);
+            canvas.restore();
+            return;
+        }
         canvas.save();
 
         canvas.translate(mViewWidth / 2, mViewHeight / 2);
@@ -160,6 +244,51 @@ public class GiftProgressView extends View {
         canvas.restore();
     }
 
+    /**
+     * Draw the static layer from the cached bitmap, the background, top drawables and
+     * progress texts are only redrawn into the bitmap when they changed.
+     *
+     * @param canvas Canvas
+     * @return false if the static layer is not used, the layers must be drawn directly
+     */
+    private boolean drawStaticLayer(Canvas canvas) {
+        if (!mStaticLayerEnabled || mViewWidth <= 0 || mViewHeight <= 0
+                || (long) mViewWidth * mViewHeight * 4 > mStaticLayerMaxBytes) {
+            releaseStaticLayer();
+            return false;
+        }
+        if (null == mStaticLayerBitmap || mStaticLayerBitmap.getWidth() != mViewWidth
+                || mStaticLayerBitmap.getHeight() != mViewHeight) {
+            releaseStaticLayer();
+            mStaticLayerBitmap = Bitmap.createBitmap(mViewWidth, mViewHeight, Bitmap.Config.ARGB_8888);
+            mStaticLayerCanvas = new Canvas(mStaticLayerBitmap);
+        }
+        if (mStaticLayerDirty) {
+            mStaticLayerBitmap.eraseColor(Color.TRANSPARENT);
+            mStaticLayerCanvas.save();
+            mStaticLayerCanvas.translate(mViewWidth / 2, mViewHeight / 2);
+            drawProgressBackground(mStaticLayerCanvas);
+            drawTopDrawable(mStaticLayerCanvas);
+            drawProgressText(mStaticLayerCanvas);
+            mStaticLayerCanvas.restore();
+            mStaticLayerDirty = false;
+        }
+        canvas.drawBitmap(mStaticLayerBitmap, 0, 0, null);
+        return true;
+    }
+
+    /**
+     * Release the bitmap of the static layer.
+     */
+    private void releaseStaticLayer() {
+        if (null != mStaticLayerBitmap) {
+            mStaticLayerBitmap.recycle();
+            mStaticLayerBitmap = null;
+            mStaticLayerCanvas = null;
+        }
+        mStaticLayerDirty = true;
+    }
+
     /**
      * Draw the progress background.
      *
@@ -167,9 +296,7 @@ public class GiftProgressView extends View {
      */
     private void drawProgressBackground(Canvas canvas) {
         canvas.save();
-        mProgressBgDrawable.setBounds(mProgressBackgroundRect);
-        mProgressBgDrawable.setCornerRadius(mProgressCorner);
-        mProgressBgDrawable.draw(canvas);
+        mTrack.drawBackground(canvas);
         canvas.restore();
     }
 
@@ -180,9 +307,7 @@ public class GiftProgressView extends View {
      */
     private void drawProgress(Canvas canvas) {
         canvas.save();
-        mProgressDrawable.setBounds(mProgressRect);
-        mProgressDrawable.setCornerRadius(mProgressCorner);
-        mProgressDrawable.draw(canvas);
+        mTrack.drawFill(canvas);
         canvas.restore();
     }
 
@@ -193,25 +318,8 @@ public class GiftProgressView extends View {
      */
     private void drawThumb(Canvas canvas) {
         canvas.save();
-        mThumbPaint.setColor(mThumbColor);
-        canvas.drawRect(mThumbDestRect, mThumbPaint);
-
-        mThumbPaint.setColor(0xFFAAAAAA);
-        mThumbPaint.setTextSize(30);
-
-        String text = mCurrProgress + "人";
-        int width = (int) mSectionPointPaint.measureText(text);
-        canvas.drawText(text, mThumbDestRect.centerX() - width / 2, mThumbDestRect.bottom + 30 + 5, mThumbPaint);
-
-        mThumbPaint.setColor(mProgressColor);
-        Path path = new Path();
-        path.moveTo(mThumbDestRect.centerX(), mThumbDestRect.top - 15);
-        path.lineTo(mThumbDestRect.centerX() - 15, mThumbDestRect.top - 40);
-        path.lineTo(mThumbDestRect.centerX() + 15, mThumbDestRect.top - 40);
-        path.lineTo(mThumbDestRect.centerX(), mThumbDestRect.top - 15);
-        path.close();
-        canvas.drawPath(path, mThumbPaint);
-
+        String text = getThumbText();
+        mPainter.drawThumb(canvas, mThumbDestRect, text, mThumbTextWidth);
         canvas.restore();
     }
 
@@ -221,50 +329,63 @@ public class GiftProgressView extends View {
      * @param canvas Canvas
      */
     private void drawTopDrawable(Canvas canvas) {
-        if (mTopDrawableList == null || mTopDrawableList.isEmpty()) {
+        int size = null == mTopDrawableList ? 0 : mTopDrawableList.size();
+        if (size == 0 && null == mTopDrawableInterval) {
             return;
         }
         canvas.save();
 
-        for (TopDrawable topDrawable : mTopDrawableList) {
-            if (mCurrProgress == topDrawable.progress) {
-                continue;
+        if (size > 0 && canvas.getClipBounds(mClipRect)) {
+            // Only the markers which may reach into the clip are drawn.
+            int end = mTopDrawableIndex.end(mClipRect.right);
+            for (int p = mTopDrawableIndex.first(mClipRect.left); p < end; p++) {
+                int i = mTopDrawableIndex.get(p);
+                TopDrawable topDrawable = mTopDrawableList.get(i);
+                if (mTrack.getProgress() == topDrawable.progress) {
+                    continue;
+                }
+                drawTopDrawable(canvas, topDrawable, mTopDrawableCoords[i]);
+            }
+        }
+        if (null != mTopDrawableInterval && mTrack.updateVisibleRange(canvas, mGeneratedMarkerMargin)) {
+            MarkerInterval interval = mTopDrawableInterval;
+            TopDrawable topDrawable = mGeneratedTopDrawable;
+            int lastX = Integer.MIN_VALUE;
+            for (long i = interval.ceilIndex(mTrack.getVisibleMinProgress()),
+                 last = interval.floorIndex(mTrack.getVisibleMaxProgress()); i <= last; i++) {
+                long progress = interval.progressAt(i);
+                int x = (int) mTrack.progress2Coord(progress);
+                if (x == lastX) {
+                    i = mTrack.nextPixelIndex(interval, i, x);
+                    continue;
+                }
+                lastX = x;
+                if (mTrack.getProgress() == progress) {
+                    continue;
+                }
+                topDrawable.progress = progress;
+                mTopDrawableStyle.onStyle(topDrawable, i);
+                if (null != topDrawable.drawable) {
+                    drawTopDrawable(canvas, topDrawable, x);
+                }
             }
-            int x = (int) progress2Coord(topDrawable.progress);
-            Rect rect = new Rect(x - topDrawable.width / 2,
-                    mProgressRect.top - topDrawable.height - 10,
-                    x + topDrawable.width / 2,
-                    mProgressRect.top - 10);
-            topDrawable.drawable.setBounds(rect);
-            topDrawable.drawable.draw(canvas);
         }
         canvas.restore();
     }
 
+    private void drawTopDrawable(Canvas canvas, TopDrawable topDrawable, int x) {
+        mPainter.drawTopDrawable(canvas, mTrack.getFillRect(), topDrawable.drawable,
+                topDrawable.width, topDrawable.height, x);
+    }
+
     /**
      * Draw the progress space.
      *
      * @param canvas Canvas
      */
     private void drawProgressSpace(Canvas canvas) {
-        if (mProgressSpaceList == null || mProgressSpaceList.isEmpty()) {
-            return;
-        }
         canvas.save();
-
-        for (ProgressSpace progressSpace : mProgressSpaceList) {
-            if (mCurrProgress == progressSpace.progress) {
-                continue;
-            }
-            int x = (int) progress2Coord(progressSpace.progress);
-            Rect rect = new Rect(x - progressSpace.spaceWidth / 2,
-                    mProgressRect.top,
-                    x + progressSpace.spaceWidth / 2,
-                    mProgressRect.bottom);
-
-            mThumbPaint.setColor(progressSpace.spaceColor);
-            canvas.drawRect(rect, mThumbPaint);
-        }
+        mSpaceLayer.draw(canvas, mTrack, mPainter.getThumbPaint(), mTrack.getProgress());
         canvas.restore();
     }
 
@@ -274,24 +395,79 @@ public class GiftProgressView extends View {
      * @param canvas Canvas
      */
     private void drawProgressText(Canvas canvas) {
-        if (mProgressTextList == null || mProgressTextList.isEmpty()) {
+        int size = null == mProgressTextList ? 0 : mProgressTextList.size();
+        if (size == 0 && null == mProgressTextInterval) {
             return;
         }
         canvas.save();
 
-        for (ProgressText progressText : mProgressTextList) {
-            if (mCurrProgress == progressText.progress) {
-                continue;
+        if (size > 0 && canvas.getClipBounds(mClipRect)) {
+            int end = mProgressTextIndex.end(mClipRect.right);
+            for (int p = mProgressTextIndex.first(mClipRect.left); p < end; p++) {
+                int i = mProgressTextIndex.get(p);
+                ProgressText progressText = mProgressTextList.get(i);
+                if (mTrack.getProgress() == progressText.progress) {
+                    continue;
+                }
+                drawProgressText(canvas, progressText, mProgressTextCoords[i], mProgressTextWidths[i]);
             }
-            int x = (int) progress2Coord(progressText.progress);
+        }
+        if (null != mProgressTextInterval && mTrack.updateVisibleRange(canvas, mGeneratedMarkerMargin)) {
+            MarkerInterval interval = mProgressTextInterval;
+            ProgressText progressText = mGeneratedProgressText;
+            // One width slot per label if they all fit on the track, or else one per pixel,
+            // at most one label is drawn per pixel.
+            int length = mTrack.getLength();
+            boolean slotByIndex = interval.getCount() <= length + 1;
+            mGeneratedTextWidths.resize(slotByIndex ? (int) interval.getCount() : length + 1);
+            mGeneratedLabels.ensureMaxCount(2 * mGeneratedTextWidths.getSize());
+            int lastX = Integer.MIN_VALUE;
+            for (long i = interval.ceilIndex(mTrack.getVisibleMinProgress()),
+                 last = interval.floorIndex(mTrack.getVisibleMaxProgress()); i <= last; i++) {
+                long progress = interval.progressAt(i);
+                int x = (int) mTrack.progress2Coord(progress);
+                if (x == lastX) {
+                    i = mTrack.nextPixelIndex(interval, i, x);
+                    continue;
+                }
+                lastX = x;
+                if (mTrack.getProgress() == progress) {
+                    continue;
+                }
+                progressText.progress = progress;
+                progressText.text = null;
+                mProgressTextStyle.onStyle(progressText, i);
+                if (null == progressText.text) {
+                    progressText.text = mGeneratedLabels.get(progress);
+                }
+                int slot = slotByIndex ? (int) i : Math.max(0, Math.min(length, x + length / 2));
+                int textWidth = (int) mGeneratedTextWidths.measureText(mPainter.getTextPaint(), slot,
+                        progress, progressText.text);
+                drawProgressText(canvas, progressText, x, textWidth);
+            }
+        }
+        canvas.restore();
+    }
 
-            mSectionPointPaint.setColor(0xFFAAAAAA);
-            mSectionPointPaint.setTextSize(30);
+    private void drawProgressText(Canvas canvas, ProgressText progressText, int x, int textWidth) {
+        mPainter.drawProgressText(canvas, mTrack.getFillRect(), progressText.text, progressText.textColor,
+                x, textWidth);
+    }
 
-            int width = (int) mSectionPointPaint.measureText(progressText.text);
-            canvas.drawText(progressText.text, x - width / 2, mProgressRect.bottom + 30 + 5, mSectionPointPaint);
+    /**
+     * Return the thumb text, the string is only rebuilt when the progress changed.
+     *
+     * @return the thumb text
+     */
+    private String getThumbText() {
+        long progress = mTrack.getProgress();
+        if (null == mThumbText || mThumbTextProgress != progress) {
+            mThumbText = progress + "人";
+            mThumbTextProgress = progress;
+            // a new caption per progress, caching its width would only evict the other texts
+            mThumbTextWidth = (int) mPainter.getThumbPaint().measureText(mThumbText);
         }
-        canvas.restore();
+        return mThumbText;
     }
 
     /**
@@ -301,28 +477,165 @@ public class GiftProgressView extends View {
      * @param height height
      */
     private void initViewSize(int width, int height) {
-        if (width <= 0 || height <= 0) {
+        if (!mTrack.setSize(width, height)) {
             return;
         }
 
-        mProgressLength = width - 100;
+        int halfLength = mTrack.getLength() / 2;
+        mThumbDestRect.top = -mProgressHeight;
+        mThumbDestRect.bottom = mProgressHeight;
+        mThumbDestRect.left = -halfLength - mThumbWidth / 2;
+        mThumbDestRect.right = -halfLength + mThumbWidth / 2;
 
-        mProgressBackgroundRect.top = -mProgressHeight;
-        mProgressBackgroundRect.bottom = -mProgressBackgroundRect.top;
-        mProgressBackgroundRect.left = -mProgressLength / 2;
-        mProgressBackgroundRect.right = mProgressLength / 2;
+        updateMarkerCoords();
+        invalidateStaticLayer();
+        applyProgress(mTrack.getProgress(), false, false);
+    }
 
-        mProgressRect.top = -mProgressHeight;
-        mProgressRect.bottom = -mProgressRect.top;
-        mProgressRect.left = -mProgressLength / 2;
-        mProgressRect.right = -mProgressLength / 2;
+    /**
+     * Recompute the coordinates of all markers. They only depend on the view size,
+     * the min/max progress and the marker lists, so this is not done in onDraw.
+     */
+    private void updateMarkerCoords() {
+        updateTopDrawableCoords();
+        updateProgressSpaceCoords();
+        updateProgressTextCoords();
+        updateGeneratedMarkerMargin();
+    }
 
-        mThumbDestRect.top = -mProgressHeight;
-        mThumbDestRect.bottom = -mProgressRect.top;
-        mThumbDestRect.left = -mProgressLength / 2 - mThumbWidth / 2;
-        mThumbDestRect.right = -mProgressLength / 2 + mThumbWidth / 2;
+    /**
+     * Compute how far the generated top drawables and progress texts may reach out of their
+     * coordinate, so the markers reaching into the clip are never culled. Without a max width
+     * every marker which can be drawn is styled, at most one per pixel of the track, so this is
+     * only done when the track or the generators changed.
+     */
+    private void updateGeneratedMarkerMargin() {
+        int maxWidth = 0;
+        if (null != mTopDrawableInterval) {
+            if (mTopDrawableMaxWidth >= 0) {
+                maxWidth = mTopDrawableMaxWidth;
+            } else {
+                MarkerInterval interval = mTopDrawableInterval;
+                TopDrawable topDrawable = mGeneratedTopDrawable;
+                int lastX = Integer.MIN_VALUE;
+                for (long i = interval.ceilIndex(mTrack.getMinProgress()),
+                     last = interval.floorIndex(mTrack.getMaxProgress()); i <= last; i++) {
+                    long progress = interval.progressAt(i);
+                    int x = (int) mTrack.progress2Coord(progress);
+                    if (x == lastX) {
+                        i = mTrack.nextPixelIndex(interval, i, x);
+                        continue;
+                    }
+                    lastX = x;
+                    topDrawable.progress = progress;
+                    mTopDrawableStyle.onStyle(topDrawable, i);
+                    if (null != topDrawable.drawable) {
+                        maxWidth = Math.max(maxWidth, topDrawable.width);
+                    }
+                }
+            }
+        }
+        if (null != mProgressTextInterval) {
+            if (mProgressTextMaxWidth >= 0) {
+                maxWidth = Math.max(maxWidth, mProgressTextMaxWidth);
+            } else {
+                MarkerInterval interval = mProgressTextInterval;
+                ProgressText progressText = mGeneratedProgressText;
+                int lastX = Integer.MIN_VALUE;
+                for (long i = interval.ceilIndex(mTrack.getMinProgress()),
+                     last = interval.floorIndex(mTrack.getMaxProgress()); i <= last; i++) {
+                    long progress = interval.progressAt(i);
+                    int x = (int) mTrack.progress2Coord(progress);
+                    if (x == lastX) {
+                        i = mTrack.nextPixelIndex(interval, i, x);
+                        continue;
+                    }
+                    lastX = x;
+                    progressText.progress = progress;
+                    progressText.text = null;
+                    mProgressTextStyle.onStyle(progressText, i);
+                    if (null == progressText.text) {
+                        progressText.text = mGeneratedLabels.get(progress);
+                    }
+                    maxWidth = Math.max(maxWidth, (int) mPainter.getTextPaint().measureText(progressText.text));
+                }
+            }
+        }
+        mGeneratedMarkerMargin = maxWidth / 2;
+    }
+
+    /**
+     * Recompute the coordinates of the top drawables.
+     */
+    private void updateTopDrawableCoords() {
+        int size = null == mTopDrawableList ? 0 : mTopDrawableList.size();
+        mTopDrawableCoords = obtainCoords(mTopDrawableCoords, size);
+        int margin = 0;
+        for (int i = 0; i < size; i++) {
+            TopDrawable topDrawable = mTopDrawableList.get(i);
+            mTopDrawableCoords[i] = (int) mTrack.progress2Coord(topDrawable.progress);
+            margin = Math.max(margin, topDrawable.width / 2);
+        }
+        mTopDrawableIndex.build(mTopDrawableCoords, size);
+        mTopDrawableIndex.setMargin(margin);
+    }
+
+    /**
+     * Copy the progress spaces into the space layer and recompute their coordinates.
+     */
+    private void updateProgressSpaceCoords() {
+        int size = null == mProgressSpaceList ? 0 : mProgressSpaceList.size();
+        if (mProgressSpaceValues.length < size) {
+            mProgressSpaceValues = new long[size];
+        }
+        mProgressSpaceWidths = obtainCoords(mProgressSpaceWidths, size);
+        mProgressSpaceColors = obtainCoords(mProgressSpaceColors, size);
+        for (int i = 0; i < size; i++) {
+            ProgressSpace progressSpace = mProgressSpaceList.get(i);
+            mProgressSpaceValues[i] = progressSpace.progress;
+            mProgressSpaceWidths[i] = progressSpace.spaceWidth;
+            mProgressSpaceColors[i] = progressSpace.spaceColor;
+        }
+        mSpaceLayer.setSpaces(size, mProgressSpaceValues, mProgressSpaceWidths, mProgressSpaceColors);
+        mSpaceLayer.updateCoords(mTrack);
+    }
+
+    /**
+     * Recompute the coordinates of the progress texts.
+     */
+    private void updateProgressTextCoords() {
+        int size = null == mProgressTextList ? 0 : mProgressTextList.size();
+        mProgressTextCoords = obtainCoords(mProgressTextCoords, size);
+        for (int i = 0; i < size; i++) {
+            mProgressTextCoords[i] = (int) mTrack.progress2Coord(mProgressTextList.get(i).progress);
+        }
+        mProgressTextIndex.build(mProgressTextCoords, size);
+    }
 
-        setProgress(mCurrProgress);
+    /**
+     * Measure the width of all progress texts, only called when the texts changed.
+     */
+    private void updateProgressTextWidths() {
+        int size = null == mProgressTextList ? 0 : mProgressTextList.size();
+        mProgressTextWidths = obtainCoords(mProgressTextWidths, size);
+        int margin = 0;
+        for (int i = 0; i < size; i++) {
+            mProgressTextWidths[i] = (int) mTextMeasureCache.measureText(mPainter.getTextPaint(),
+                    mProgressTextList.get(i).text);
+            margin = Math.max(margin, mProgressTextWidths[i] / 2);
+        }
+        mProgressTextIndex.setMargin(margin);
+    }
+
+    /**
+     * Return an array which can hold the coordinates of the given count of markers.
+     *
+     * @param coords the current array
+     * @param size   the count of markers
+     * @return the array to use
+     */
+    private static int[] obtainCoords(int[] coords, int size) {
+        return coords.length >= size ? coords : new int[size];
     }
 
     /**
@@ -331,32 +644,20 @@ public class GiftProgressView extends View {
      * @param anim     true show anim, false not show anim
      * @param progress progress
      */
-    private void toDestProgress(boolean anim, int progress) {
-        if (anim && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
-            float startCoord = checkCoord(progress2Coord(mCurrProgress));
-            float stopCoord = checkCoord(progress2Coord(progress));
-            mCurrProgress = progress;
-            if (null == mToDestValueAnimator) {
-                mToDestValueAnimator = new ValueAnimator();
-                mToDestValueAnimator.setDuration(400);
-                mToDestValueAnimator.setInterpolator(new DecelerateInterpolator());
-                mToDestValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-                    @Override
-                    public void onAnimationUpdate(ValueAnimator animation) {
-                        float coord = (Float) animation.getAnimatedValue();
-                        moveToPoint(coord);
-                    }
-                });
+    private void toDestProgress(boolean anim, long progress) {
+        long lastProgress = mTrack.getProgress();
+        if (lastProgress != progress) {
+            if (hasMarkerAt(lastProgress) || hasMarkerAt(progress)) {
+                // A marker hidden at the current progress shows again or hides.
+                invalidateStaticLayer();
             } else {
-                mToDestValueAnimator.cancel();
+                // The thumb text changes where the thumb is now.
+                getMovingBounds(mDirtyRect);
+                mDirtyRect.offset(mViewWidth / 2, mViewHeight / 2);
+                invalidate(mDirtyRect);
             }
-            mToDestValueAnimator.setFloatValues(startCoord, stopCoord);
-            mToDestValueAnimator.start();
-        } else {
-            mCurrProgress = progress;
-            float stopCoord = checkCoord(progress2Coord(progress));
-            moveToPoint(stopCoord);
         }
+        mAnimator.moveTo(progress, anim);
     }
 
     /**
@@ -365,34 +666,69 @@ public class GiftProgressView extends View {
      * @param coord the x or y coordinate of thumb
      */
     private void moveToPoint(float coord) {
-        float halfLength = mProgressLength / 2;
-        if (coord > halfLength) {
-            coord = halfLength;
-            mCurrProgress = mMaxProgress;
-        } else if (coord < -halfLength) {
-            coord = -halfLength;
-            mCurrProgress = mMinProgress;
-        }
+        getMovingBounds(mDirtyRect);
+        long lastProgress = mTrack.getProgress();
+        boolean progressChanged = mTrack.moveFill(coord);
+        coord = mTrack.checkCoord(coord);
         mThumbDestRect.left = (int) (coord - mThumbWidth / 2);
         mThumbDestRect.right = (int) (coord + mThumbWidth / 2);
-        mProgressRect.right = (int) coord;
-        invalidate();
+        if (progressChanged && (hasMarkerAt(lastProgress) || hasMarkerAt(mTrack.getProgress()))) {
+            invalidateStaticLayer();
+            return;
+        }
+        // Only redraw the area the fill end, thumb and thumb text moved across.
+        getMovingBounds(mMovingRect);
+        mDirtyRect.union(mMovingRect);
+        mDirtyRect.offset(mViewWidth / 2, mViewHeight / 2);
+        invalidate(mDirtyRect);
     }
 
     /**
-     * Check the coordinate
+     * Return whether a top drawable, progress text or space is at the progress, the markers
+     * at the current progress are not drawn.
      *
-     * @param coord coordinate
-     * @return the new coordinate
+     * @param progress progress value
+     * @return true if a marker is at the progress
      */
-    private float checkCoord(float coord) {
-        float halfLength = mProgressLength / 2;
-        if (coord > halfLength) {
-            return halfLength;
-        } else if (coord < -halfLength) {
-            return -halfLength;
+    private boolean hasMarkerAt(long progress) {
+        int x = (int) mTrack.progress2Coord(progress);
+        if (null != mTopDrawableList) {
+            for (int p = mTopDrawableIndex.first(x), end = mTopDrawableIndex.end(x); p < end; p++) {
+                if (mTopDrawableList.get(mTopDrawableIndex.get(p)).progress == progress) {
+                    return true;
+                }
+            }
+        }
+        if (null != mProgressTextList) {
+            for (int p = mProgressTextIndex.first(x), end = mProgressTextIndex.end(x); p < end; p++) {
+                if (mProgressTextList.get(mProgressTextIndex.get(p)).progress == progress) {
+                    return true;
+                }
+            }
         }
-        return coord;
+        return (null != mTopDrawableInterval && mTopDrawableInterval.contains(progress))
+                || (null != mProgressTextInterval && mProgressTextInterval.contains(progress))
+                || mSpaceLayer.hasSpaceAt(progress, x);
+    }
+
+    /**
+     * Get the bounds of the fill end, thumb and thumb text, relative to the view center.
+     *
+     * @param outRect the rect to receive the bounds
+     */
+    private void getMovingBounds(Rect outRect) {
+        int centerX = mThumbDestRect.centerX();
+        getThumbText();
+        int halfWidth = Math.max(Math.max(15, mThumbWidth / 2), mThumbTextWidth / 2) + 1;
+        outRect.set(centerX - halfWidth,
+                mThumbDestRect.top - 40 - 1,
+                centerX + halfWidth,
+                mThumbDestRect.bottom + 30 + 5 + GiftPainter.TEXT_SIZE / 2);
+        Rect fillRect = mTrack.getFillRect();
+        outRect.union(fillRect.right - mProgressCorner - 1,
+                fillRect.top,
+                fillRect.right + mProgressCorner + 1,
+                fillRect.bottom);
     }
 
     /**
@@ -401,9 +737,22 @@ public class GiftProgressView extends View {
      * @param progress progress value
      * @return x or y coordinate
      */
-    private float progress2Coord(int progress) {
-        return (float) mProgressLength * (progress - mMinProgress)
-                / (mMaxProgress - mMinProgress) - mProgressLength / 2f;
+    float progress2Coord(long progress) {
+        return mTrack.progress2Coord(progress);
+    }
+
+    /**
+     * Return the count of markers, the generated markers count up to the track length.
+     *
+     * @return the count of markers
+     */
+    private int getMarkerCount() {
+        long count = (null == mTopDrawableList ? 0 : mTopDrawableList.size())
+                + (null == mProgressTextList ? 0 : mProgressTextList.size());
+        count += mSpaceLayer.getMarkerCount(mTrack);
+        count += mTrack.getGeneratedCount(mTopDrawableInterval);
+        count += mTrack.getGeneratedCount(mProgressTextInterval);
+        return (int) Math.min(count, Integer.MAX_VALUE);
     }
 
     /**
@@ -411,8 +760,8 @@ public class GiftProgressView extends View {
      *
      * @return the current progress
      */
-    public int getProgress() {
-        return mCurrProgress;
+    public long getProgress() {
+        return mTrack.getProgress();
     }
 
     /**
@@ -420,8 +769,8 @@ public class GiftProgressView extends View {
      *
      * @return the min progress
      */
-    public int getMinProgress() {
-        return mMinProgress;
+    public long getMinProgress() {
+        return mTrack.getMinProgress();
     }
 
     /**
@@ -429,8 +778,10 @@ public class GiftProgressView extends View {
      *
      * @param minProgress the min progress
      */
-    public void setMinProgress(int minProgress) {
-        this.mMinProgress = minProgress;
+    public void setMinProgress(long minProgress) {
+        mTrack.setRange(minProgress, mTrack.getMaxProgress());
+        updateMarkerCoords();
+        invalidateStaticLayer();
     }
 
     /**
@@ -438,8 +789,8 @@ public class GiftProgressView extends View {
      *
      * @return the max progress
      */
-    public int getMaxProgress() {
-        return mMaxProgress;
+    public long getMaxProgress() {
+        return mTrack.getMaxProgress();
     }
 
     /**
@@ -447,8 +798,10 @@ public class GiftProgressView extends View {
      *
      * @param maxProgress the max progress
      */
-    public void setMaxProgress(int maxProgress) {
-        this.mMaxProgress = maxProgress;
+    public void setMaxProgress(long maxProgress) {
+        mTrack.setRange(mTrack.getMinProgress(), maxProgress);
+        updateMarkerCoords();
+        invalidateStaticLayer();
     }
 
     /**
@@ -456,7 +809,7 @@ public class GiftProgressView extends View {
      *
      * @param progress progress
      */
-    public void setProgress(int progress) {
+    public void setProgress(long progress) {
         setProgress(progress, false, false);
     }
 
@@ -467,21 +820,88 @@ public class GiftProgressView extends View {
      * @param anim     true show anim, false not show anim
      * @param fromUser true by user, false not by user
      */
-    public void setProgress(int progress, boolean anim, boolean fromUser) {
-        if (progress <= mMinProgress) {
-            progress = mMinProgress;
-        } else if (progress >= mMaxProgress) {
-            progress = mMaxProgress;
+    public void setProgress(long progress, boolean anim, boolean fromUser) {
+        ProgressMetrics metrics = mMetrics;
+        if (null != metrics) {
+            metrics.onSetProgress();
+        }
+        if (mCoalesceUpdates) {
+            postCoalesced(progress, anim, fromUser);
+            return;
+        }
+        applyProgress(progress, anim, fromUser);
+    }
+
+    /**
+     * Post a progress from any thread without an allocation per call. Only the latest
+     * posted value is kept, it is applied once on the next frame.
+     *
+     * @param progress progress
+     */
+    public void postProgress(long progress) {
+        postProgress(progress, false);
+    }
+
+    /**
+     * Post a progress from any thread without an allocation per call. Only the latest
+     * posted value is kept, it is applied once on the next frame.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     */
+    public void postProgress(long progress, boolean anim) {
+        ProgressMetrics metrics = mMetrics;
+        if (null != metrics) {
+            metrics.onSetProgress();
+        }
+        postCoalesced(progress, anim, false);
+    }
+
+    /**
+     * Post the progress to the coalescer.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     * @param fromUser true by user, false not by user
+     */
+    private void postCoalesced(long progress, boolean anim, boolean fromUser) {
+        ProgressMetrics metrics = mMetrics;
+        if (mProgressCoalescer.post(progress, anim, fromUser) && null != metrics) {
+            metrics.onCoalesced();
         }
+    }
 
-        toDestProgress(anim, progress);
+    /**
+     * Set whether to coalesce progress updates. When enabled, {@link #setProgress} may be
+     * called from any thread, all the calls between two frames are collapsed into the latest
+     * one, which is applied with one listener dispatch on the next frame.
+     *
+     * @param coalesce true to coalesce
+     */
+    public void setCoalesceUpdates(boolean coalesce) {
+        this.mCoalesceUpdates = coalesce;
+    }
+
+    /**
+     * Apply the progress.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     * @param fromUser true by user, false not by user
+     */
+    private void applyProgress(long progress, boolean anim, boolean fromUser) {
+        toDestProgress(anim, mTrack.clampProgress(progress));
         if (null != mOnProgressListener) {
-            if (mLastProgress != mCurrProgress) {
+            if (mLastProgress != mTrack.getProgress()) {
                 mIsFromUser = fromUser;
+                ProgressMetrics metrics = mMetrics;
+                if (null != metrics) {
+                    metrics.onListenerDispatch();
+                }
                 mOnProgressListener.onChanged(this, mIsFromUser, true);
                 mIsFromUser = false;
             }
-            mLastProgress = mCurrProgress;
+            mLastProgress = mTrack.getProgress();
         }
     }
 
@@ -491,6 +911,8 @@ public class GiftProgressView extends View {
      */
     public void setTopDrawableList(List<TopDrawable> list) {
         this.mTopDrawableList = list;
+        updateMarkerCoords();
+        invalidateStaticLayer();
     }
 
     /**
@@ -499,6 +921,8 @@ public class GiftProgressView extends View {
      */
     public void setProgressSpaceList(List<ProgressSpace> list) {
         this.mProgressSpaceList = list;
+        updateMarkerCoords();
+        invalidateStaticLayer();
     }
 
     /**
@@ -507,8 +931,316 @@ public class GiftProgressView extends View {
      */
     public void setProgressTextList(List<ProgressText> list) {
         this.mProgressTextList = list;
+        updateMarkerCoords();
+        updateProgressTextWidths();
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Generate top drawables at a regular interval instead of a list. Only the markers inside
+     * the visible clip are styled and drawn, and nothing is stored per marker.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the drawable, width and height of every marker, a null drawable
+     *                 skips the marker
+     */
+    public void setTopDrawableGenerator(MarkerInterval interval, MarkerInterval.Style<TopDrawable> style) {
+        setTopDrawableGenerator(interval, style, -1);
+    }
+
+    /**
+     * Generate top drawables at a regular interval instead of a list. Without the max width
+     * every marker which can be drawn is styled once whenever the size or the range changes,
+     * to know which markers reach into the clip.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the drawable, width and height of every marker, a null drawable
+     *                 skips the marker
+     * @param maxWidth the largest width of the drawables, -1 if not known
+     */
+    public void setTopDrawableGenerator(MarkerInterval interval, MarkerInterval.Style<TopDrawable> style,
+                                        int maxWidth) {
+        this.mTopDrawableInterval = null == style ? null : interval;
+        this.mTopDrawableStyle = style;
+        this.mTopDrawableMaxWidth = maxWidth;
+        updateGeneratedMarkerMargin();
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Generate progress spaces at a regular interval instead of a list,
+     * see {@link #setTopDrawableGenerator(MarkerInterval, MarkerInterval.Style)}.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the width and color of every marker
+     */
+    public void setProgressSpaceGenerator(MarkerInterval interval, MarkerInterval.Style<ProgressSpace> style) {
+        setProgressSpaceGenerator(interval, style, -1);
+    }
+
+    /**
+     * Generate progress spaces at a regular interval instead of a list,
+     * see {@link #setTopDrawableGenerator(MarkerInterval, MarkerInterval.Style, int)}.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the width and color of every marker
+     * @param maxWidth the largest width of the spaces, -1 if not known
+     */
+    public void setProgressSpaceGenerator(MarkerInterval interval, final MarkerInterval.Style<ProgressSpace> style,
+                                          int maxWidth) {
+        mSpaceLayer.setGenerator(interval, null == style ? null : new SpaceLayer.Styler() {
+            @Override
+            public void onStyle(SpaceLayer layer, long progress, long index) {
+                ProgressSpace progressSpace = mGeneratedProgressSpace;
+                progressSpace.progress = progress;
+                style.onStyle(progressSpace, index);
+                layer.setStyle(progressSpace.spaceWidth, progressSpace.spaceColor);
+            }
+        }, maxWidth);
+        mSpaceLayer.updateGeneratedMargin(mTrack);
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Generate progress texts at a regular interval instead of a list,
+     * see {@link #setTopDrawableGenerator(MarkerInterval, MarkerInterval.Style)}.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the text and color of every marker, the text is the progress
+     *                 label, e.g. "10人", if left null
+     */
+    public void setProgressTextGenerator(MarkerInterval interval, MarkerInterval.Style<ProgressText> style) {
+        setProgressTextGenerator(interval, style, -1);
+    }
+
+    /**
+     * Generate progress texts at a regular interval instead of a list,
+     * see {@link #setTopDrawableGenerator(MarkerInterval, MarkerInterval.Style, int)}.
+     *
+     * @param interval the progress of the markers, null to remove
+     * @param style    fill the text and color of every marker, the text is the progress
+     *                 label, e.g. "10人", if left null
+     * @param maxWidth the largest width of the texts, -1 if not known
+     */
+    public void setProgressTextGenerator(MarkerInterval interval, MarkerInterval.Style<ProgressText> style,
+                                         int maxWidth) {
+        this.mProgressTextInterval = null == style ? null : interval;
+        this.mProgressTextStyle = style;
+        this.mProgressTextMaxWidth = maxWidth;
+        if (null != interval && null == mGeneratedLabels) {
+            mGeneratedLabels = new ProgressLabelCache();
+            mGeneratedTextWidths = new LabelWidthCache();
+        }
+        updateGeneratedMarkerMargin();
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Set the scale which maps the progress to the track, e.g. {@link ProgressScale#log()}
+     * or {@link ProgressScale#breakpoints(double...)}. It is compiled into a lookup table
+     * whenever the size or the min/max progress changes.
+     *
+     * @param scale the scale, null for {@link ProgressScale#LINEAR}
+     */
+    public void setProgressScale(ProgressScale scale) {
+        mTrack.setScale(scale);
+        updateMarkerCoords();
+        // every marker moved, not only the thumb
+        invalidateStaticLayer();
+        mAnimator.moveTo(mTrack.getProgress(), false);
+    }
+
+    /**
+     * Apply the range and all markers in one call. Only the markers which differ from
+     * the current ones are recomputed, and nothing is done if the config is the same.
+     *
+     * @param config the config
+     */
+    public void setConfig(GiftProgressConfig config) {
+        setMarkers(config.getMinProgress(), config.getMaxProgress(), config.getTopDrawableList(),
+                config.getProgressSpaceList(), config.getProgressTextList());
+    }
+
+    /**
+     * Start to edit the range and markers in place, the marker instances and lists are
+     * reused from the last edit. Call {@link MarkerEditor#apply()} when done.
+     *
+     * @return the editor, starting with the current range and no markers
+     */
+    public MarkerEditor editMarkers() {
+        if (null == mMarkerEditor) {
+            mMarkerEditor = new MarkerEditor(this);
+        }
+        mMarkerEditor.begin();
+        return mMarkerEditor;
+    }
+
+    /**
+     * Apply the range and all markers, the lists which equal the current ones are ignored.
+     *
+     * @param minProgress       the min progress
+     * @param maxProgress       the max progress
+     * @param topDrawableList   the top drawables
+     * @param progressSpaceList the progress spaces
+     * @param progressTextList  the progress texts
+     */
+    void setMarkers(long minProgress, long maxProgress, List<TopDrawable> topDrawableList,
+                    List<ProgressSpace> progressSpaceList, List<ProgressText> progressTextList) {
+        boolean rangeChanged = minProgress != mTrack.getMinProgress() || maxProgress != mTrack.getMaxProgress();
+        boolean topDrawableChanged = !GiftProgressConfig.sameTopDrawables(
+                mTopDrawableList, topDrawableList);
+        boolean progressSpaceChanged = !GiftProgressConfig.sameProgressSpaces(
+                mProgressSpaceList, progressSpaceList);
+        boolean progressTextChanged = !GiftProgressConfig.sameProgressTexts(
+                mProgressTextList, progressTextList);
+        if (!rangeChanged && !topDrawableChanged && !progressSpaceChanged && !progressTextChanged) {
+            return;
+        }
+
+        mTrack.setRange(minProgress, maxProgress);
+        if (topDrawableChanged) {
+            mTopDrawableList = topDrawableList;
+        }
+        if (progressSpaceChanged) {
+            mProgressSpaceList = progressSpaceList;
+        }
+        if (progressTextChanged) {
+            mProgressTextList = progressTextList;
+            updateProgressTextWidths();
+        }
+        if (rangeChanged || topDrawableChanged) {
+            updateTopDrawableCoords();
+        }
+        if (rangeChanged || progressSpaceChanged) {
+            updateProgressSpaceCoords();
+        }
+        if (rangeChanged || progressTextChanged) {
+            updateProgressTextCoords();
+        }
+        if (rangeChanged) {
+            mAnimator.moveTo(mTrack.clampProgress(mTrack.getProgress()), false);
+        }
+        invalidateStaticLayer();
+    }
+
+    List<TopDrawable> getTopDrawableList() {
+        return mTopDrawableList;
+    }
+
+    List<ProgressSpace> getProgressSpaceList() {
+        return mProgressSpaceList;
+    }
+
+    List<ProgressText> getProgressTextList() {
+        return mProgressTextList;
+    }
+
+    /**
+     * Call this after changing the fields of the markers which have been set,
+     * the marker coordinates are cached and will not be recomputed otherwise.
+     */
+    public void notifyMarkersChanged() {
+        updateMarkerCoords();
+        updateProgressTextWidths();
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Mark the static layer as changed, it will be redrawn on the next draw. Call this
+     * after changing something drawn by a marker, e.g. the state of a top drawable.
+     */
+    public void invalidateStaticLayer() {
+        mStaticLayerDirty = true;
+        invalidate();
     }
 
+    /**
+     * Set whether to cache the background, top drawables and progress texts in a bitmap,
+     * so they are not redrawn on every frame while the thumb moves.
+     *
+     * @param enabled true to enable the cache
+     */
+    public void setStaticLayerEnabled(boolean enabled) {
+        this.mStaticLayerEnabled = enabled;
+        if (!enabled) {
+            releaseStaticLayer();
+        }
+        invalidate();
+    }
+
+    /**
+     * Set the max bytes of the static layer bitmap. Larger views are drawn directly.
+     *
+     * @param maxBytes the max bytes
+     */
+    public void setStaticLayerMaxBytes(int maxBytes) {
+        this.mStaticLayerMaxBytes = maxBytes;
+        invalidateStaticLayer();
+    }
+
+
+    /**
+     * Set the physics of the progress animation, e.g. {@link ProgressMotion#spring(float, float)}.
+     * The default decelerates to the target in 400 ms.
+     *
+     * @param motion the motion, only used by this view
+     */
+    public void setProgressMotion(ProgressMotion motion) {
+        mAnimator.setMotion(motion);
+    }
+
+    /**
+     * Set the engine which steps the progress animation and applies the posted progress, the
+     * default engine steps all the views on the main thread from one frame callback.
+     *
+     * @param engine the engine
+     */
+    public void setAnimationEngine(ProgressAnimationEngine engine) {
+        mAnimator.setEngine(engine);
+        mProgressCoalescer.setEngine(engine);
+    }
+
+    /**
+     * Set whether to draw on a hardware layer while the progress animates.
+     *
+     * @param mode {@link AnimationLayer#MODE_AUTO}, {@link AnimationLayer#MODE_ALWAYS}
+     *             or {@link AnimationLayer#MODE_NEVER}
+     */
+    public void setAnimationLayerMode(int mode) {
+        mAnimator.setLayerMode(mode);
+    }
+
+    /**
+     * Set the count of markers from which {@link AnimationLayer#MODE_AUTO} promotes the view.
+     *
+     * @param markerThreshold the count of markers
+     */
+    public void setAnimationLayerMarkerThreshold(int markerThreshold) {
+        mAnimator.setLayerMarkerThreshold(markerThreshold);
+    }
+
+    /**
+     * Set whether to record the frame and update counters, see {@link ProgressMetrics}.
+     * Nothing is recorded while disabled.
+     *
+     * @param enabled true to record
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && null == mMetrics) {
+            mMetrics = new ProgressMetrics();
+        } else if (!enabled) {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * Get the recorded counters.
+     *
+     * @return the counters, null if not enabled
+     */
+    public ProgressMetrics getMetrics() {
+        return mMetrics;
+    }
 
     /**
      * Register a callback to be invoked when the progress changes.
@@ -525,12 +1257,12 @@ public class GiftProgressView extends View {
     }
 
     public static class TopDrawable {
-        public int progress;
+        public long progress;
         public Drawable drawable;
         public int width;
         public int height;
 
-        public TopDrawable(int progress, Drawable drawable, int width, int height) {
+        public TopDrawable(long progress, Drawable drawable, int width, int height) {
             this.progress = progress;
             this.drawable = drawable;
             this.width = width;
@@ -539,11 +1271,11 @@ public class GiftProgressView extends View {
     }
 
     public static class ProgressSpace {
-        public int progress;
+        public long progress;
         public int spaceWidth;
         public int spaceColor;
 
-        public ProgressSpace(int progress, int spaceWidth, int spaceColor) {
+        public ProgressSpace(long progress, int spaceWidth, int spaceColor) {
             this.progress = progress;
             this.spaceWidth = spaceWidth;
             this.spaceColor = spaceColor;
@@ -551,11 +1283,11 @@ public class GiftProgressView extends View {
     }
 
     public static class ProgressText {
-        public int progress;
+        public long progress;
         public String text;
         public int textColor;
 
-        public ProgressText(int progress, String text, int textColor) {
+        public ProgressText(long progress, String text, int textColor) {
             this.progress = progress;
             this.text = text;
             this.textColor = textColor;
@@ -0,0 +1,69 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Paint;
+
+/**
+ * A cache of the measured widths of the generated labels. Every label has its own slot,
+ * e.g. its index in the interval or its pixel on the track, so the slots are sized for the
+ * labels which can be visible at once and a frame drawing the same labels again neither
+ * measures nor allocates anything. Only use it from the UI thread.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class LabelWidthCache {
+
+    private long[] mProgress = new long[0];
+    private String[] mTexts = new String[0];
+    private float[] mWidths = new float[0];
+    private int mHitCount;
+    private int mMissCount;
+
+    /**
+     * Make room for the slots 0 to count - 1, the widths are kept if they already fit.
+     *
+     * @param count the count of slots
+     */
+    void resize(int count) {
+        if (mWidths.length != count) {
+            mProgress = new long[count];
+            mTexts = new String[count];
+            mWidths = new float[count];
+        }
+    }
+
+    int getSize() {
+        return mWidths.length;
+    }
+
+    /**
+     * Return the width of the label measured by the paint.
+     *
+     * @param paint    the paint, it must not change while the widths are cached
+     * @param slot     the slot of the label
+     * @param progress the progress of the label
+     * @param text     the label
+     * @return the width
+     */
+    float measureText(Paint paint, int slot, long progress, String text) {
+        String cached = mTexts[slot];
+        if (null != cached && mProgress[slot] == progress && (cached == text || cached.equals(text))) {
+            mHitCount++;
+            return mWidths[slot];
+        }
+        mMissCount++;
+        float width = paint.measureText(text);
+        mProgress[slot] = progress;
+        mTexts[slot] = text;
+        mWidths[slot] = width;
+        return width;
+    }
+
+    int getHitCount() {
+        return mHitCount;
+    }
+
+    int getMissCount() {
+        return mMissCount;
+    }
+}
@@ -0,0 +1,179 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.drawable.Drawable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edit the range and markers of {@link GiftProgressView} in place. The marker instances
+ * and lists of the previous edits are pooled and mutated again, and the progress labels
+ * are cached, so a tier rollover does not allocate once the pools are warm.
+ * Obtain it with {@link GiftProgressView#editMarkers()}, only use it on the UI thread.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class MarkerEditor {
+
+    private final GiftProgressView mView;
+
+    private final List<GiftProgressView.TopDrawable> mTopDrawablePool = new ArrayList<>();
+    private final List<GiftProgressView.ProgressSpace> mProgressSpacePool = new ArrayList<>();
+    private final List<GiftProgressView.ProgressText> mProgressTextPool = new ArrayList<>();
+
+    /**
+     * Two lists of every type, the view holds one of them and the other is edited.
+     */
+    private final List<GiftProgressView.TopDrawable>[] mTopDrawableLists = newLists();
+    private final List<GiftProgressView.ProgressSpace>[] mProgressSpaceLists = newLists();
+    private final List<GiftProgressView.ProgressText>[] mProgressTextLists = newLists();
+    private List<GiftProgressView.TopDrawable> mTopDrawableList;
+    private List<GiftProgressView.ProgressSpace> mProgressSpaceList;
+    private List<GiftProgressView.ProgressText> mProgressTextList;
+
+    private final ProgressLabelCache mLabels = new ProgressLabelCache();
+
+    private long mMinProgress;
+    private long mMaxProgress;
+
+    MarkerEditor(GiftProgressView view) {
+        this.mView = view;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T>[] newLists() {
+        return new List[]{new ArrayList<T>(), new ArrayList<T>()};
+    }
+
+    /**
+     * Start a new edit, recycle the markers of the lists the view does not hold.
+     */
+    void begin() {
+        mMinProgress = mView.getMinProgress();
+        mMaxProgress = mView.getMaxProgress();
+        mTopDrawableList = obtainList(mTopDrawableLists, mView.getTopDrawableList(), mTopDrawablePool);
+        mProgressSpaceList = obtainList(mProgressSpaceLists, mView.getProgressSpaceList(), mProgressSpacePool);
+        mProgressTextList = obtainList(mProgressTextLists, mView.getProgressTextList(), mProgressTextPool);
+    }
+
+    /**
+     * Return the list which the view does not hold, after moving its markers to the pool.
+     */
+    private static <T> List<T> obtainList(List<T>[] lists, List<T> viewList, List<T> pool) {
+        List<T> list = lists[0] == viewList ? lists[1] : lists[0];
+        pool.addAll(list);
+        list.clear();
+        return list;
+    }
+
+    private static <T> T obtain(List<T> pool) {
+        return pool.isEmpty() ? null : pool.remove(pool.size() - 1);
+    }
+
+    /**
+     * Set the min and max progress.
+     *
+     * @param minProgress the min progress
+     * @param maxProgress the max progress
+     * @return this
+     */
+    public MarkerEditor setRange(long minProgress, long maxProgress) {
+        this.mMinProgress = minProgress;
+        this.mMaxProgress = maxProgress;
+        return this;
+    }
+
+    public MarkerEditor addTopDrawable(long progress, Drawable drawable, int width, int height) {
+        GiftProgressView.TopDrawable topDrawable = obtain(mTopDrawablePool);
+        if (null == topDrawable) {
+            topDrawable = new GiftProgressView.TopDrawable(progress, drawable, width, height);
+        } else {
+            topDrawable.progress = progress;
+            topDrawable.drawable = drawable;
+            topDrawable.width = width;
+            topDrawable.height = height;
+        }
+        mTopDrawableList.add(topDrawable);
+        return this;
+    }
+
+    public MarkerEditor addProgressSpace(long progress, int spaceWidth, int spaceColor) {
+        GiftProgressView.ProgressSpace progressSpace = obtain(mProgressSpacePool);
+        if (null == progressSpace) {
+            progressSpace = new GiftProgressView.ProgressSpace(progress, spaceWidth, spaceColor);
+        } else {
+            progressSpace.progress = progress;
+            progressSpace.spaceWidth = spaceWidth;
+            progressSpace.spaceColor = spaceColor;
+        }
+        mProgressSpaceList.add(progressSpace);
+        return this;
+    }
+
+    public MarkerEditor addProgressText(long progress, String text, int textColor) {
+        GiftProgressView.ProgressText progressText = obtain(mProgressTextPool);
+        if (null == progressText) {
+            progressText = new GiftProgressView.ProgressText(progress, text, textColor);
+        } else {
+            progressText.progress = progress;
+            progressText.text = text;
+            progressText.textColor = textColor;
+        }
+        mProgressTextList.add(progressText);
+        return this;
+    }
+
+    /**
+     * Add a progress text showing the progress value, e.g. "10人". The label strings
+     * are cached, so the same value does not build a new string again.
+     *
+     * @param progress  progress value
+     * @param textColor the text color
+     * @return this
+     */
+    public MarkerEditor addProgressLabel(long progress, int textColor) {
+        return addProgressText(progress, mLabels.get(progress), textColor);
+    }
+
+    /**
+     * Call the generator for every step from the first to the last progress, both included.
+     *
+     * @param from      the first progress
+     * @param to        the last progress
+     * @param step      the step, greater than 0
+     * @param generator the generator which adds the markers of every progress
+     * @return this
+     */
+    public MarkerEditor generate(long from, long to, long step, Generator generator) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step <= 0: " + step);
+        }
+        int index = 0;
+        for (long progress = from; progress <= to; progress += step) {
+            generator.onGenerate(this, progress, index++);
+            if (progress > Long.MAX_VALUE - step) {
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Apply the edit to the view, see {@link GiftProgressView#setConfig(GiftProgressConfig)}.
+     */
+    public void apply() {
+        mView.setMarkers(mMinProgress, mMaxProgress, mTopDrawableList, mProgressSpaceList, mProgressTextList);
+    }
+
+    public interface Generator {
+        /**
+         * Add the markers of the progress.
+         *
+         * @param editor   the editor
+         * @param progress progress value
+         * @param index    the index of the progress, from 0
+         */
+        void onGenerate(MarkerEditor editor, long progress, int index);
+    }
+}
@@ -0,0 +1,106 @@
+package com.rhino.giftprogress.view;
+
+import java.util.Arrays;
+
+/**
+ * The markers of a list sorted by their coordinate, so the markers inside a clip are found
+ * with a binary search and drawing costs O(log n + visible) instead of O(n).
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class MarkerIndex {
+
+    /**
+     * Every entry packs the coordinate into the high 32 bits and the index of the marker
+     * into the low 32 bits, so sorting the entries sorts the markers by coordinate.
+     */
+    private long[] mEntries = new long[0];
+    private int mSize;
+    private int mMargin;
+
+    /**
+     * Rebuild the index.
+     *
+     * @param coords the coordinate of every marker
+     * @param size   the count of markers
+     */
+    void build(int[] coords, int size) {
+        if (mEntries.length < size) {
+            mEntries = new long[size];
+        }
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            mEntries[i] = ((long) coords[i] << 32) | i;
+            if (i > 0 && mEntries[i] < mEntries[i - 1]) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(mEntries, 0, size);
+        }
+        mSize = size;
+    }
+
+    /**
+     * Set how far a marker may reach out of its coordinate.
+     *
+     * @param margin the largest half width of the markers
+     */
+    void setMargin(int margin) {
+        this.mMargin = margin;
+    }
+
+    /**
+     * Return the first position of the markers which may reach into the coordinate range.
+     *
+     * @param minCoord the min coordinate of the range
+     * @return the position
+     */
+    int first(int minCoord) {
+        return search((long) minCoord - mMargin);
+    }
+
+    /**
+     * Return the position after the last marker which may reach into the coordinate range.
+     *
+     * @param maxCoord the max coordinate of the range
+     * @return the position
+     */
+    int end(int maxCoord) {
+        return search((long) maxCoord + mMargin + 1);
+    }
+
+    /**
+     * Return the index of the marker at the position.
+     *
+     * @param position the position, from {@link #first(int)} to {@link #end(int)}
+     * @return the index of the marker in the list
+     */
+    int get(int position) {
+        return (int) mEntries[position];
+    }
+
+    /**
+     * Return the position of the first marker at or after the coordinate.
+     */
+    private int search(long coord) {
+        if (coord > Integer.MAX_VALUE) {
+            return mSize;
+        } else if (coord < Integer.MIN_VALUE) {
+            return 0;
+        }
+        long key = coord << 32;
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mEntries[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,146 @@
+package com.rhino.giftprogress.view;
+
+/**
+ * Markers placed at a regular interval, from the first progress to the last progress
+ * every step. Nothing is stored per marker, the progress of any index and the indexes
+ * inside a progress range are computed, so the count of markers does not cost memory.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class MarkerInterval {
+
+    private final long mFirst;
+    private final long mLast;
+    private final long mStep;
+    private final long mCount;
+
+    /**
+     * Create the interval.
+     *
+     * @param first the progress of the first marker
+     * @param last  the max progress of the markers, the last marker may be before it
+     * @param step  the step between two markers, greater than 0
+     */
+    public MarkerInterval(long first, long last, long step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step <= 0: " + step);
+        }
+        if (last < first) {
+            throw new IllegalArgumentException("last < first: " + last + " < " + first);
+        }
+        long count = divideUnsigned(last - first, step) + 1;
+        if (count <= 0) {
+            throw new IllegalArgumentException("too many markers, step " + step + " is too small");
+        }
+        this.mFirst = first;
+        this.mLast = first + (count - 1) * step;
+        this.mStep = step;
+        this.mCount = count;
+    }
+
+    public long getFirst() {
+        return mFirst;
+    }
+
+    /**
+     * Get the progress of the last marker.
+     *
+     * @return the progress of the last marker
+     */
+    public long getLast() {
+        return mLast;
+    }
+
+    public long getStep() {
+        return mStep;
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * Return the progress of the marker.
+     *
+     * @param index the index of the marker
+     * @return progress value
+     */
+    public long progressAt(long index) {
+        return mFirst + index * mStep;
+    }
+
+    /**
+     * Return the index of the first marker at or after the progress.
+     *
+     * @param progress progress value
+     * @return the index, {@link #getCount()} if there is none
+     */
+    public long ceilIndex(long progress) {
+        if (progress <= mFirst) {
+            return 0;
+        } else if (progress > mLast) {
+            return mCount;
+        }
+        return divideUnsigned(progress - mFirst - 1, mStep) + 1;
+    }
+
+    /**
+     * Return the index of the last marker at or before the progress.
+     *
+     * @param progress progress value
+     * @return the index, -1 if there is none
+     */
+    public long floorIndex(long progress) {
+        if (progress < mFirst) {
+            return -1;
+        } else if (progress >= mLast) {
+            return mCount - 1;
+        }
+        return divideUnsigned(progress - mFirst, mStep);
+    }
+
+    /**
+     * Return whether a marker is at the progress.
+     *
+     * @param progress progress value
+     * @return true if a marker is at the progress
+     */
+    public boolean contains(long progress) {
+        long index = ceilIndex(progress);
+        return index < mCount && progressAt(index) == progress;
+    }
+
+    /**
+     * Divide the dividend as an unsigned value, the distance between two progress values
+     * may not fit in a signed long.
+     *
+     * @param dividend the unsigned dividend
+     * @param divisor  the divisor, greater than 0
+     * @return the quotient
+     */
+    private static long divideUnsigned(long dividend, long divisor) {
+        if (dividend >= 0) {
+            return dividend / divisor;
+        }
+        long quotient = ((dividend >>> 1) / divisor) << 1;
+        long remainder = dividend - quotient * divisor;
+        return quotient + (remainder + Long.MIN_VALUE >= divisor + Long.MIN_VALUE ? 1 : 0);
+    }
+
+    /**
+     * Set the style of every marker generated by a {@link MarkerInterval}.
+     *
+     * @param <T> the type of the marker
+     */
+    public interface Style<T> {
+        /**
+         * Style the marker. The same marker instance is passed for every index with its
+         * progress already set, so keep no reference to it.
+         *
+         * @param marker the marker to fill
+         * @param index  the index of the marker
+         */
+        void onStyle(T marker, long index);
+    }
+}
@@ -0,0 +1,285 @@
+package com.rhino.giftprogress.view;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Step the running {@link ProgressMotion}s of all progress views from a single frame
+ * callback, instead of one animator per view. Only use it on the thread of its frame
+ * source, the default engine runs on the main thread.
+ * <p>
+ * The frames come from a {@link FrameSource}, a JVM test can pass its own source and call
+ * {@link #doFrame(long)} with the time it chooses to step the motions deterministically.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class ProgressAnimationEngine {
+
+    /**
+     * The longest time stepped in one frame, so a motion does not jump after a stall.
+     */
+    private static final long MAX_FRAME_NANOS = 100000000L;
+
+    private static ProgressAnimationEngine sDefault;
+
+    private final FrameSource mFrameSource;
+    private final List<ProgressMotion> mMotions = new ArrayList<>();
+    private ProgressMotion[] mFrameMotions = new ProgressMotion[0];
+    private final List<Runnable> mFrameTasks = new ArrayList<>();
+    private Runnable[] mRunningTasks = new Runnable[0];
+    private boolean mFramePosted;
+    private long mLastFrameNanos;
+
+    /**
+     * Create an engine.
+     *
+     * @param frameSource the source of the frames
+     */
+    public ProgressAnimationEngine(FrameSource frameSource) {
+        this.mFrameSource = frameSource;
+    }
+
+    /**
+     * Get the engine shared by all views on the main thread.
+     *
+     * @return the engine
+     */
+    public static ProgressAnimationEngine getDefault() {
+        if (null == sDefault) {
+            sDefault = new ProgressAnimationEngine(
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN
+                            ? new ChoreographerFrameSource() : new HandlerFrameSource());
+        }
+        return sDefault;
+    }
+
+    /**
+     * Move the motion to the target. A motion already running on this engine keeps its
+     * position and velocity and only changes the target, otherwise it starts at rest.
+     *
+     * @param motion   the motion
+     * @param from     the position to start from if not running
+     * @param to       the target
+     * @param callback receive the updates and the end of the motion
+     * @return true if the motion is started, false if it was running and is retargeted
+     */
+    public boolean animate(ProgressMotion motion, float from, float to, Callback callback) {
+        if (motion.mRunning && motion.mEngine == this) {
+            motion.mCallback = callback;
+            motion.retarget(to);
+            return false;
+        }
+        if (motion.mRunning) {
+            motion.mEngine.cancel(motion);
+        }
+        motion.start(from, to);
+        motion.mRunning = true;
+        motion.mEngine = this;
+        motion.mCallback = callback;
+        mMotions.add(motion);
+        postFrame();
+        return true;
+    }
+
+    /**
+     * Run the task once on the next frame, before the motions are stepped. A task which is
+     * already waiting for the frame is not added again.
+     *
+     * @param task the task
+     */
+    void postFrameTask(Runnable task) {
+        if (!mFrameTasks.contains(task)) {
+            mFrameTasks.add(task);
+            postFrame();
+        }
+    }
+
+    /**
+     * Remove the task waiting for the next frame.
+     *
+     * @param task the task
+     * @return true if the task was waiting
+     */
+    boolean removeFrameTask(Runnable task) {
+        return mFrameTasks.remove(task);
+    }
+
+    private void postFrame() {
+        if (!mFramePosted) {
+            mFramePosted = true;
+            mLastFrameNanos = mFrameSource.now();
+            mFrameSource.postFrame(this);
+        }
+    }
+
+    /**
+     * Stop the motion where it is, its callback receives the end as canceled.
+     *
+     * @param motion the motion
+     */
+    public void cancel(ProgressMotion motion) {
+        if (motion.mRunning && motion.mEngine == this) {
+            mMotions.remove(motion);
+            end(motion, true);
+        }
+    }
+
+    /**
+     * Get the count of running motions.
+     *
+     * @return the count
+     */
+    public int getRunningCount() {
+        return mMotions.size();
+    }
+
+    /**
+     * Run the frame tasks and step all the running motions to the frame time, called by the
+     * frame source.
+     *
+     * @param frameTimeNanos the time of the frame, from {@link FrameSource#now()}
+     */
+    public void doFrame(long frameTimeNanos) {
+        long nanos = Math.max(0, Math.min(frameTimeNanos - mLastFrameNanos, MAX_FRAME_NANOS));
+        mLastFrameNanos = frameTimeNanos;
+        float seconds = nanos / 1e9f;
+
+        // the frame counts as posted until the end, the tasks and motions added meanwhile
+        // are left to the next frame, which is posted once below
+        int taskCount = mFrameTasks.size();
+        if (taskCount > 0) {
+            if (mRunningTasks.length < taskCount) {
+                mRunningTasks = new Runnable[Math.max(taskCount, mRunningTasks.length * 2)];
+            }
+            mFrameTasks.toArray(mRunningTasks);
+            mFrameTasks.clear();
+            for (int i = 0; i < taskCount; i++) {
+                Runnable task = mRunningTasks[i];
+                mRunningTasks[i] = null;
+                task.run();
+            }
+        }
+
+        // the callbacks may start or cancel motions, so step a copy
+        int count = mMotions.size();
+        if (mFrameMotions.length < count) {
+            mFrameMotions = new ProgressMotion[Math.max(count, mFrameMotions.length * 2)];
+        }
+        mMotions.toArray(mFrameMotions);
+        for (int i = 0; i < count; i++) {
+            ProgressMotion motion = mFrameMotions[i];
+            mFrameMotions[i] = null;
+            if (!motion.mRunning || motion.mEngine != this) {
+                continue;
+            }
+            boolean moving = motion.step(seconds);
+            motion.mCallback.onUpdate(motion);
+            if (!moving && motion.mRunning && motion.mEngine == this) {
+                mMotions.remove(motion);
+                end(motion, false);
+            }
+        }
+        mFramePosted = !mMotions.isEmpty() || !mFrameTasks.isEmpty();
+        if (mFramePosted) {
+            mFrameSource.postFrame(this);
+        }
+    }
+
+    private static void end(ProgressMotion motion, boolean canceled) {
+        Callback callback = motion.mCallback;
+        motion.mRunning = false;
+        motion.mEngine = null;
+        motion.mCallback = null;
+        callback.onEnd(motion, canceled);
+    }
+
+    public interface Callback {
+        /**
+         * Called on every frame with the new position of the motion.
+         *
+         * @param motion the motion
+         */
+        void onUpdate(ProgressMotion motion);
+
+        /**
+         * Called once when the motion comes to rest or is canceled.
+         *
+         * @param motion   the motion
+         * @param canceled true if canceled
+         */
+        void onEnd(ProgressMotion motion, boolean canceled);
+    }
+
+    public interface FrameSource {
+        /**
+         * Return the current time in the time base of the frames.
+         *
+         * @return the time in nanoseconds
+         */
+        long now();
+
+        /**
+         * Call {@link ProgressAnimationEngine#doFrame(long)} of the engine on the next frame.
+         *
+         * @param engine the engine
+         */
+        void postFrame(ProgressAnimationEngine engine);
+    }
+
+    /**
+     * The frames of the display, from API 16.
+     */
+    private static final class ChoreographerFrameSource implements FrameSource, Choreographer.FrameCallback {
+
+        private ProgressAnimationEngine mEngine;
+
+        @Override
+        public long now() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void postFrame(ProgressAnimationEngine engine) {
+            mEngine = engine;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mEngine.doFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Frames about every 16 ms on the main thread, before API 16.
+     */
+    private static final class HandlerFrameSource implements FrameSource, Runnable {
+
+        private static final long FRAME_DELAY_MILLIS = 16;
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+        private ProgressAnimationEngine mEngine;
+
+        @Override
+        public long now() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void postFrame(ProgressAnimationEngine engine) {
+            mEngine = engine;
+            mHandler.postDelayed(this, FRAME_DELAY_MILLIS);
+        }
+
+        @Override
+        public void run() {
+            mEngine.doFrame(System.nanoTime());
+        }
+    }
+}
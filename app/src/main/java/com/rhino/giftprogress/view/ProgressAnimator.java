@@ -0,0 +1,139 @@
+package com.rhino.giftprogress.view;
+
+import android.view.View;
+
+/**
+ * Move the fill of a {@link ProgressTrack} to the current progress, with or without an
+ * animation, for the progress views. The animation is stepped by a shared
+ * {@link ProgressAnimationEngine} and the view is promoted to an {@link AnimationLayer}
+ * while it runs.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class ProgressAnimator {
+
+    private static final long DEFAULT_ANIMATION_DURATION = 400;
+
+    /**
+     * The view which draws the track.
+     */
+    interface Target {
+        /**
+         * Move the fill and invalidate what changed.
+         *
+         * @param coord the coordinate of the fill end, inside the track
+         */
+        void onMove(float coord);
+
+        /**
+         * @return the count of markers the view draws
+         */
+        int getMarkerCount();
+
+        /**
+         * @return the counters, null if not enabled
+         */
+        ProgressMetrics getMetrics();
+    }
+
+    private final View mView;
+    private final ProgressTrack mTrack;
+    private final Target mTarget;
+    private ProgressAnimationEngine mAnimationEngine = ProgressAnimationEngine.getDefault();
+    private ProgressMotion mMotion = ProgressMotion.decelerate(DEFAULT_ANIMATION_DURATION);
+    private AnimationLayer mAnimationLayer = new AnimationLayer();
+    private ProgressAnimationEngine.Callback mMotionCallback;
+
+    ProgressAnimator(View view, ProgressTrack track, Target target) {
+        mView = view;
+        mTrack = track;
+        mTarget = target;
+        mMotionCallback = new ProgressAnimationEngine.Callback() {
+            @Override
+            public void onUpdate(ProgressMotion motion) {
+                ProgressMetrics metrics = mTarget.getMetrics();
+                if (null != metrics) {
+                    metrics.onAnimatorTick();
+                }
+                // a spring may overshoot the track
+                mTarget.onMove(mTrack.checkCoord(motion.getPosition()));
+            }
+
+            @Override
+            public void onEnd(ProgressMotion motion, boolean canceled) {
+                mAnimationLayer.end(mView);
+                ProgressMetrics metrics = mTarget.getMetrics();
+                if (null != metrics) {
+                    metrics.onAnimationEnd();
+                }
+            }
+        };
+    }
+
+    /**
+     * Set the current progress of the track and move the fill to it.
+     *
+     * @param progress the progress, already clamped
+     * @param anim     true show anim, false not show anim
+     */
+    void moveTo(long progress, boolean anim) {
+        mTrack.setProgress(progress);
+        float stopCoord = mTrack.checkCoord(mTrack.progress2Coord(progress));
+        if (anim) {
+            // A running motion keeps its position and velocity and only changes its target.
+            ProgressMetrics metrics = mTarget.getMetrics();
+            if (mAnimationEngine.animate(mMotion, mTrack.getFillRect().right, stopCoord, mMotionCallback)
+                    && mAnimationLayer.begin(mView, mTarget.getMarkerCount()) && null != metrics) {
+                metrics.onLayerPromoted();
+            }
+        } else {
+            cancel();
+            mTarget.onMove(stopCoord);
+        }
+    }
+
+    /**
+     * Stop the running animation where it is.
+     */
+    void cancel() {
+        mAnimationEngine.cancel(mMotion);
+    }
+
+    /**
+     * Stop the running animation and move the fill to the current progress at once,
+     * e.g. when the view is detached and nobody sees the animation.
+     */
+    void finish() {
+        if (mMotion.isRunning()) {
+            cancel();
+            mTarget.onMove(mTrack.checkCoord(mTrack.progress2Coord(mTrack.getProgress())));
+        }
+    }
+
+    boolean isRunning() {
+        return mMotion.isRunning();
+    }
+
+    boolean isLayerPromoted() {
+        return mAnimationLayer.isPromoted();
+    }
+
+    void setMotion(ProgressMotion motion) {
+        cancel();
+        mMotion = motion;
+    }
+
+    void setEngine(ProgressAnimationEngine engine) {
+        cancel();
+        mAnimationEngine = engine;
+    }
+
+    void setLayerMode(int mode) {
+        mAnimationLayer.setMode(mode);
+    }
+
+    void setLayerMarkerThreshold(int markerThreshold) {
+        mAnimationLayer.setMarkerThreshold(markerThreshold);
+    }
+}
@@ -0,0 +1,140 @@
+package com.rhino.giftprogress.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapse the progress updates posted between two frames into the latest one, which is
+ * applied on the next frame of the {@link ProgressAnimationEngine} of the view, on the UI
+ * thread. {@link #post} is lock free and may be called from any thread, an update of
+ * another thread first hops to the main looper, not to the view, because a view which is
+ * not attached queues the runnables of other threads where they never run before API 24.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class ProgressCoalescer implements Runnable {
+
+    private static final long NONE = Long.MIN_VALUE;
+    private static final long FLAG_ANIM = 1L;
+    private static final long FLAG_FROM_USER = 1L << 1;
+    private static final int FLAG_BITS = 2;
+    /**
+     * The progress shares the slot with the flags, so it is clamped to 61 bits.
+     */
+    private static final long MAX_PROGRESS = Long.MAX_VALUE >> FLAG_BITS;
+    private static final long MIN_PROGRESS = -MAX_PROGRESS;
+
+    private static Handler sMainHandler;
+
+    private final Handler mHandler;
+    private final Target mTarget;
+    private final AtomicLong mPending = new AtomicLong(NONE);
+    private final AtomicBoolean mScheduled = new AtomicBoolean(false);
+    private final Runnable mFrameTask;
+    private ProgressAnimationEngine mEngine = ProgressAnimationEngine.getDefault();
+
+    ProgressCoalescer(Target target) {
+        this.mHandler = getMainHandler();
+        this.mTarget = target;
+        this.mFrameTask = new Runnable() {
+            @Override
+            public void run() {
+                apply();
+            }
+        };
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (null == sMainHandler) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+
+    /**
+     * Post a progress update, it replaces the update posted before if not applied yet.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     * @param fromUser true by user, false not by user
+     * @return true if an update posted before was replaced
+     */
+    boolean post(long progress, boolean anim, boolean fromUser) {
+        long value = ProgressMath.clamp(progress, MIN_PROGRESS, MAX_PROGRESS) << FLAG_BITS;
+        if (anim) {
+            value |= FLAG_ANIM;
+        }
+        if (fromUser) {
+            value |= FLAG_FROM_USER;
+        }
+        boolean replaced = mPending.getAndSet(value) != NONE;
+        schedule();
+        return replaced;
+    }
+
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                mEngine.postFrameTask(mFrameTask);
+            } else {
+                mHandler.post(this);
+            }
+        }
+    }
+
+    /**
+     * Set the engine whose frames apply the updates, called on the UI thread.
+     *
+     * @param engine the engine
+     */
+    void setEngine(ProgressAnimationEngine engine) {
+        if (mEngine.removeFrameTask(mFrameTask)) {
+            engine.postFrameTask(mFrameTask);
+        }
+        mEngine = engine;
+    }
+
+    /**
+     * Stop applying updates, e.g. when the view is detached. The update not applied yet
+     * is kept for {@link #resume()}, an update posted later is still applied.
+     */
+    void cancel() {
+        mHandler.removeCallbacks(this);
+        mEngine.removeFrameTask(mFrameTask);
+        mScheduled.set(false);
+    }
+
+    /**
+     * Post again the update kept by {@link #cancel()}, e.g. when the view is attached.
+     */
+    void resume() {
+        if (mPending.get() != NONE) {
+            schedule();
+        }
+    }
+
+    /**
+     * Arrived on the main looper from another thread, wait for the next frame.
+     */
+    @Override
+    public void run() {
+        mEngine.postFrameTask(mFrameTask);
+    }
+
+    private void apply() {
+        mScheduled.set(false);
+        long value = mPending.getAndSet(NONE);
+        if (value == NONE) {
+            return;
+        }
+        mTarget.onProgress(value >> FLAG_BITS, (value & FLAG_ANIM) != 0, (value & FLAG_FROM_USER) != 0);
+    }
+
+    interface Target {
+        void onProgress(long progress, boolean anim, boolean fromUser);
+    }
+}
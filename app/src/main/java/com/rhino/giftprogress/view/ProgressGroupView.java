@@ -0,0 +1,528 @@
+package com.rhino.giftprogress.view;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.View;
+
+import com.rhino.giftprogress.R;
+
+import java.util.Arrays;
+
+/**
+ * A group of plain progress bars stacked in rows, for dashboards which would otherwise
+ * lay out one progress view per bar. The bars are stored as parallel arrays indexed by
+ * the bar id and are all drawn in one onDraw with two paints, only the rows inside the
+ * clip of the canvas are drawn. All the running animations are stepped together by one
+ * motion on the {@link ProgressAnimationEngine}, so the frame callback is shared too.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class ProgressGroupView extends View {
+
+    private static final int DEFAULT_PROGRESS_BACKGROUND_COLOR = 0xFFD9D9D9;
+    private static final int DEFAULT_PROGRESS_COLOR = 0xFFFB7E16;
+    private static final int DEFAULT_MIN_PROGRESS = 0;
+    private static final int DEFAULT_MAX_PROGRESS = 100;
+    private static final int DEFAULT_PROGRESS_CORNER = 6;
+    private static final int DEFAULT_PROGRESS_HEIGHT = 6;
+    private static final int DEFAULT_ROW_HEIGHT = 60;
+    private static final long DEFAULT_ANIMATION_DURATION = 400;
+
+    private int mProgressCorner = DEFAULT_PROGRESS_CORNER;
+    private int mProgressHeight = DEFAULT_PROGRESS_HEIGHT;
+    private int mProgressColor = DEFAULT_PROGRESS_COLOR;
+    private long mDefaultMinProgress = DEFAULT_MIN_PROGRESS;
+    private long mDefaultMaxProgress = DEFAULT_MAX_PROGRESS;
+    private int mRowHeight = DEFAULT_ROW_HEIGHT;
+
+    private int mViewHeight;
+    private int mViewWidth;
+    private int mProgressLength;
+
+    private int mBarCount;
+    private long[] mMinProgress = new long[0];
+    private long[] mMaxProgress = new long[0];
+    private long[] mProgress = new long[0];
+    private int[] mProgressColors = new int[0];
+
+    // The drawn fraction of every bar and the decelerate curve it moves on.
+    private float[] mPosition = new float[0];
+    private float[] mVelocity = new float[0];
+    private float[] mTarget = new float[0];
+    private float[] mStartPosition = new float[0];
+    private float[] mStartVelocity = new float[0];
+    private float[] mElapsed = new float[0];
+    private boolean[] mMoving = new boolean[0];
+    private int[] mMovingBars = new int[0];
+    private int mMovingCount;
+    private float mDuration = DEFAULT_ANIMATION_DURATION / 1000f;
+
+    private ProgressAnimationEngine mAnimationEngine = ProgressAnimationEngine.getDefault();
+    private ProgressMotion mFrameMotion;
+    private ProgressAnimationEngine.Callback mFrameCallback;
+
+    private Paint mBackgroundPaint;
+    private Paint mProgressPaint;
+    private RectF mBarRect;
+    private Rect mClipRect;
+
+    public ProgressGroupView(Context context) {
+        this(context, null);
+    }
+
+    public ProgressGroupView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public ProgressGroupView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        init(context, attrs);
+    }
+
+    private void init(Context context, AttributeSet attrs) {
+        int backgroundColor = DEFAULT_PROGRESS_BACKGROUND_COLOR;
+        if (null != attrs) {
+            TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.GiftProgressView);
+            mProgressHeight = typedArray.getDimensionPixelSize(R.styleable.GiftProgressView_csb_progress_height,
+                    DEFAULT_PROGRESS_HEIGHT);
+            mProgressCorner = typedArray.getDimensionPixelSize(R.styleable.GiftProgressView_csb_progress_corner,
+                    DEFAULT_PROGRESS_CORNER);
+            backgroundColor = typedArray.getColor(R.styleable.GiftProgressView_csb_background_color,
+                    DEFAULT_PROGRESS_BACKGROUND_COLOR);
+            mProgressColor = typedArray.getColor(R.styleable.GiftProgressView_csb_progress_color,
+                    DEFAULT_PROGRESS_COLOR);
+            mDefaultMinProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_min_value,
+                    DEFAULT_MIN_PROGRESS);
+            mDefaultMaxProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_max_value,
+                    DEFAULT_MAX_PROGRESS);
+            typedArray.recycle();
+        }
+
+        mBackgroundPaint = new Paint();
+        mBackgroundPaint.setStyle(Paint.Style.FILL);
+        mBackgroundPaint.setAntiAlias(true);
+        mBackgroundPaint.setColor(backgroundColor);
+
+        mProgressPaint = new Paint();
+        mProgressPaint.setStyle(Paint.Style.FILL);
+        mProgressPaint.setAntiAlias(true);
+
+        mBarRect = new RectF();
+        mClipRect = new Rect();
+
+        // The motion is only the clock of the group, every bar moves on its own curve.
+        mFrameMotion = new ProgressMotion() {
+            @Override
+            protected void onStart(boolean retarget) {
+            }
+
+            @Override
+            protected boolean onStep(float seconds) {
+                return stepBars(seconds);
+            }
+        };
+        mFrameCallback = new ProgressAnimationEngine.Callback() {
+            @Override
+            public void onUpdate(ProgressMotion motion) {
+                invalidate();
+            }
+
+            @Override
+            public void onEnd(ProgressMotion motion, boolean canceled) {
+            }
+        };
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+        if (widthMode == MeasureSpec.EXACTLY) {
+            mViewWidth = widthSize;
+        } else {
+            mViewWidth = getWidth();
+        }
+        if (heightMode == MeasureSpec.EXACTLY) {
+            mViewHeight = heightSize;
+        } else {
+            mViewHeight = mBarCount * mRowHeight;
+        }
+        mProgressLength = Math.max(0, mViewWidth - ProgressTrack.TRACK_PADDING);
+        setMeasuredDimension(mViewWidth, mViewHeight);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // nobody sees the animations of a detached group
+        finishAnimation();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (mBarCount == 0 || mProgressLength <= 0 || !canvas.getClipBounds(mClipRect)) {
+            return;
+        }
+        // The rows are stacked, so the rows inside the clip are found without a search.
+        int first = Math.max(0, mClipRect.top / mRowHeight);
+        int last = Math.min(mBarCount - 1, (mClipRect.bottom - 1) / mRowHeight);
+        if (first > last) {
+            // the clip is below the last row
+            return;
+        }
+        float left = (mViewWidth - mProgressLength) / 2;
+        float right = left + mProgressLength;
+        int paintColor = mProgressColors[first];
+        mProgressPaint.setColor(paintColor);
+        for (int i = first; i <= last; i++) {
+            float centerY = i * mRowHeight + mRowHeight / 2;
+            mBarRect.set(left, centerY - mProgressHeight, right, centerY + mProgressHeight);
+            canvas.drawRoundRect(mBarRect, mProgressCorner, mProgressCorner, mBackgroundPaint);
+
+            float fillRight = left + mProgressLength * Math.max(0, Math.min(1, mPosition[i]));
+            if (fillRight <= left) {
+                continue;
+            }
+            if (paintColor != mProgressColors[i]) {
+                paintColor = mProgressColors[i];
+                mProgressPaint.setColor(paintColor);
+            }
+            mBarRect.right = fillRight;
+            canvas.drawRoundRect(mBarRect, mProgressCorner, mProgressCorner, mProgressPaint);
+        }
+    }
+
+    /**
+     * Step the moving bars along their curves.
+     *
+     * @param seconds the time since the last step
+     * @return true while any bar is moving
+     */
+    private boolean stepBars(float seconds) {
+        float duration = mDuration;
+        // bars are removed by swapping with the last one, so walk backwards
+        for (int k = mMovingCount - 1; k >= 0; k--) {
+            int i = mMovingBars[k];
+            mElapsed[i] += seconds;
+            if (mElapsed[i] >= duration) {
+                mPosition[i] = mTarget[i];
+                mVelocity[i] = 0;
+                removeMoving(k);
+                continue;
+            }
+            float t = mElapsed[i] / duration;
+            float m0 = mStartVelocity[i] * duration;
+            mPosition[i] = ProgressMotion.hermitePosition(mStartPosition[i], m0, mTarget[i], t);
+            mVelocity[i] = ProgressMotion.hermiteSlope(mStartPosition[i], m0, mTarget[i], t) / duration;
+        }
+        return mMovingCount > 0;
+    }
+
+    /**
+     * Remove a bar from the moving bars.
+     *
+     * @param k the index in the moving bars
+     */
+    private void removeMoving(int k) {
+        mMoving[mMovingBars[k]] = false;
+        mMovingCount--;
+        mMovingBars[k] = mMovingBars[mMovingCount];
+    }
+
+    /**
+     * Move a bar to its current progress, the group is not invalidated.
+     *
+     * @param id   the bar id
+     * @param anim true show anim, false not show anim
+     */
+    private void moveBar(int id, boolean anim) {
+        float target = (float) ProgressMath.fraction(mProgress[id], mMinProgress[id], mMaxProgress[id]);
+        if (!anim) {
+            if (mMoving[id]) {
+                for (int k = 0; k < mMovingCount; k++) {
+                    if (mMovingBars[k] == id) {
+                        removeMoving(k);
+                        break;
+                    }
+                }
+            }
+            mPosition[id] = target;
+            mVelocity[id] = 0;
+            mTarget[id] = target;
+            return;
+        }
+        if (!mMoving[id] && mPosition[id] == target) {
+            return;
+        }
+        // A moving bar keeps its position and velocity and only changes its target.
+        float velocity = ProgressMotion.decelerateVelocity(target - mPosition[id], mVelocity[id],
+                mDuration, mMoving[id]);
+        mVelocity[id] = velocity;
+        mStartPosition[id] = mPosition[id];
+        mStartVelocity[id] = velocity;
+        mTarget[id] = target;
+        mElapsed[id] = 0;
+        if (!mMoving[id]) {
+            mMoving[id] = true;
+            mMovingBars[mMovingCount++] = id;
+        }
+    }
+
+    /**
+     * Start the frame motion if any bar moves, or stop it.
+     */
+    private void updateFrameMotion() {
+        if (mMovingCount > 0) {
+            mAnimationEngine.animate(mFrameMotion, 0, 1, mFrameCallback);
+        } else {
+            mAnimationEngine.cancel(mFrameMotion);
+        }
+    }
+
+    /**
+     * Move all the bars to their current progress at once.
+     */
+    private void finishAnimation() {
+        if (mMovingCount == 0) {
+            return;
+        }
+        for (int k = 0; k < mMovingCount; k++) {
+            int i = mMovingBars[k];
+            mMoving[i] = false;
+            mPosition[i] = mTarget[i];
+            mVelocity[i] = 0;
+        }
+        mMovingCount = 0;
+        mAnimationEngine.cancel(mFrameMotion);
+        invalidate();
+    }
+
+    /**
+     * Check the bar id.
+     *
+     * @param id the bar id
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= mBarCount) {
+            throw new IndexOutOfBoundsException("id " + id + " not in [0, " + mBarCount + ")");
+        }
+    }
+
+    /**
+     * Get the count of bars.
+     *
+     * @return the count of bars
+     */
+    public int getBarCount() {
+        return mBarCount;
+    }
+
+    /**
+     * Set the count of bars, the ids are 0 to count - 1. The kept bars are not changed,
+     * the new bars have the default range and color and start at the min progress.
+     *
+     * @param count the count of bars
+     */
+    public void setBarCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count < 0: " + count);
+        }
+        for (int k = mMovingCount - 1; k >= 0; k--) {
+            if (mMovingBars[k] >= count) {
+                removeMoving(k);
+            }
+        }
+        mMinProgress = Arrays.copyOf(mMinProgress, count);
+        mMaxProgress = Arrays.copyOf(mMaxProgress, count);
+        mProgress = Arrays.copyOf(mProgress, count);
+        mProgressColors = Arrays.copyOf(mProgressColors, count);
+        mPosition = Arrays.copyOf(mPosition, count);
+        mVelocity = Arrays.copyOf(mVelocity, count);
+        mTarget = Arrays.copyOf(mTarget, count);
+        mStartPosition = Arrays.copyOf(mStartPosition, count);
+        mStartVelocity = Arrays.copyOf(mStartVelocity, count);
+        mElapsed = Arrays.copyOf(mElapsed, count);
+        mMoving = Arrays.copyOf(mMoving, count);
+        mMovingBars = Arrays.copyOf(mMovingBars, count);
+        for (int i = mBarCount; i < count; i++) {
+            mMinProgress[i] = mDefaultMinProgress;
+            mMaxProgress[i] = mDefaultMaxProgress;
+            mProgress[i] = mDefaultMinProgress;
+            mProgressColors[i] = mProgressColor;
+            moveBar(i, false);
+        }
+        mBarCount = count;
+        updateFrameMotion();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Set the range of a bar, the bar moves to its clamped progress without an animation.
+     *
+     * @param id          the bar id
+     * @param minProgress the min progress
+     * @param maxProgress the max progress
+     */
+    public void setRange(int id, long minProgress, long maxProgress) {
+        checkId(id);
+        if (maxProgress <= minProgress) {
+            throw new IllegalArgumentException("maxProgress " + maxProgress
+                    + " <= minProgress " + minProgress);
+        }
+        mMinProgress[id] = minProgress;
+        mMaxProgress[id] = maxProgress;
+        mProgress[id] = ProgressMath.clamp(mProgress[id], minProgress, maxProgress);
+        moveBar(id, false);
+        updateFrameMotion();
+        invalidate();
+    }
+
+    public long getMinProgress(int id) {
+        checkId(id);
+        return mMinProgress[id];
+    }
+
+    public long getMaxProgress(int id) {
+        checkId(id);
+        return mMaxProgress[id];
+    }
+
+    /**
+     * Set the fill color of a bar.
+     *
+     * @param id    the bar id
+     * @param color the color
+     */
+    public void setProgressColor(int id, int color) {
+        checkId(id);
+        mProgressColors[id] = color;
+        invalidate();
+    }
+
+    /**
+     * Get the current progress of a bar, the animation may not have reached it yet.
+     *
+     * @param id the bar id
+     * @return the current progress
+     */
+    public long getProgress(int id) {
+        checkId(id);
+        return mProgress[id];
+    }
+
+    /**
+     * Set the progress of a bar.
+     *
+     * @param id       the bar id
+     * @param progress progress
+     */
+    public void setProgress(int id, long progress) {
+        setProgress(id, progress, false);
+    }
+
+    /**
+     * Set the progress of a bar.
+     *
+     * @param id       the bar id
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     */
+    public void setProgress(int id, long progress, boolean anim) {
+        checkId(id);
+        mProgress[id] = ProgressMath.clamp(progress, mMinProgress[id], mMaxProgress[id]);
+        moveBar(id, anim);
+        updateFrameMotion();
+        invalidate();
+    }
+
+    /**
+     * Set the progress of many bars at once, the group is invalidated once.
+     *
+     * @param ids    the bar ids
+     * @param values the progress of every bar
+     */
+    public void setProgress(int[] ids, long[] values) {
+        setProgress(ids, values, false);
+    }
+
+    /**
+     * Set the progress of many bars at once, the group is invalidated once and all the
+     * animations share one frame callback.
+     *
+     * @param ids    the bar ids
+     * @param values the progress of every bar
+     * @param anim   true show anim, false not show anim
+     */
+    public void setProgress(int[] ids, long[] values, boolean anim) {
+        if (values.length < ids.length) {
+            throw new IllegalArgumentException("array length " + values.length + " < count " + ids.length);
+        }
+        for (int k = 0; k < ids.length; k++) {
+            checkId(ids[k]);
+        }
+        for (int k = 0; k < ids.length; k++) {
+            int id = ids[k];
+            mProgress[id] = ProgressMath.clamp(values[k], mMinProgress[id], mMaxProgress[id]);
+            moveBar(id, anim);
+        }
+        updateFrameMotion();
+        invalidate();
+    }
+
+    /**
+     * Return true while any bar is animating.
+     *
+     * @return true if animating
+     */
+    public boolean isAnimating() {
+        return mMovingCount > 0;
+    }
+
+    /**
+     * Set the height of every row, the bars are centered in their rows.
+     *
+     * @param rowHeight the row height
+     */
+    public void setRowHeight(int rowHeight) {
+        if (rowHeight <= 0) {
+            throw new IllegalArgumentException("rowHeight <= 0: " + rowHeight);
+        }
+        mRowHeight = rowHeight;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Set the duration of the progress animation, the bars decelerate to their target.
+     *
+     * @param durationMillis the duration
+     */
+    public void setAnimationDuration(long durationMillis) {
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException("duration <= 0: " + durationMillis);
+        }
+        mDuration = durationMillis / 1000f;
+    }
+
+    /**
+     * Set the engine which steps the progress animation, the default engine steps all the
+     * views on the main thread from one frame callback.
+     *
+     * @param engine the engine
+     */
+    public void setAnimationEngine(ProgressAnimationEngine engine) {
+        mAnimationEngine.cancel(mFrameMotion);
+        mAnimationEngine = engine;
+        updateFrameMotion();
+    }
+}
@@ -0,0 +1,50 @@
+package com.rhino.giftprogress.view;
+
+import android.support.v4.util.LongSparseArray;
+
+/**
+ * A bounded cache of the progress labels, e.g. "10人", so drawing or rebuilding the
+ * same labels does not build new strings again.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class ProgressLabelCache {
+
+    /**
+     * The suffix of the labels, the same as the thumb text.
+     */
+    private static final String LABEL_SUFFIX = "人";
+    private static final int MAX_LABEL_COUNT = 512;
+
+    private final LongSparseArray<String> mLabels = new LongSparseArray<>();
+    private int mMaxCount = MAX_LABEL_COUNT;
+
+    /**
+     * Keep at least the given count of labels, e.g. the labels which can be visible at once,
+     * so drawing them again does not clear the cache.
+     *
+     * @param count the count of labels
+     */
+    void ensureMaxCount(int count) {
+        mMaxCount = Math.max(mMaxCount, count);
+    }
+
+    /**
+     * Return the label of the progress.
+     *
+     * @param progress progress value
+     * @return the label
+     */
+    String get(long progress) {
+        String label = mLabels.get(progress);
+        if (null == label) {
+            if (mLabels.size() >= mMaxCount) {
+                mLabels.clear();
+            }
+            label = progress + LABEL_SUFFIX;
+            mLabels.put(progress, label);
+        }
+        return label;
+    }
+}
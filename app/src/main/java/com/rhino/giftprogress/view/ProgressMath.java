@@ -0,0 +1,81 @@
+package com.rhino.giftprogress.view;
+
+/**
+ * Overflow safe and precision preserving math on long progress values.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class ProgressMath {
+
+    private ProgressMath() {
+    }
+
+    /**
+     * Return a - b as a double. The difference is taken in long arithmetic first, so it is
+     * exact whenever it fits in a long and only rounded once when converted to double.
+     *
+     * @param a a
+     * @param b b
+     * @return a - b
+     */
+    static double difference(long a, long b) {
+        long difference = a - b;
+        if (((a ^ b) & (a ^ difference)) < 0) {
+            // overflow, the operands have different signs
+            return (double) a - (double) b;
+        }
+        return difference;
+    }
+
+    /**
+     * Return the fraction of the progress between min and max, not clamped.
+     *
+     * @param progress progress value
+     * @param min      the min progress
+     * @param max      the max progress
+     * @return the fraction, 0 if max is not greater than min
+     */
+    static double fraction(long progress, long min, long max) {
+        if (max <= min) {
+            return 0;
+        }
+        return difference(progress, min) / difference(max, min);
+    }
+
+    /**
+     * Return the progress at the fraction between min and max, clamped to min and max.
+     *
+     * @param fraction the fraction
+     * @param min      the min progress
+     * @param max      the max progress
+     * @return progress value
+     */
+    static long progressAt(double fraction, long min, long max) {
+        if (fraction <= 0 || max <= min) {
+            return min;
+        } else if (fraction >= 1) {
+            return max;
+        }
+        double range = difference(max, min);
+        if (range >= 0x1p63) {
+            // the offset does not fit in a long, the result does
+            return clamp(Math.round(min + fraction * range), min, max);
+        }
+        long progress = min + Math.round(fraction * range);
+        // the sum can only pass max because of the rounding
+        return progress < min || progress > max ? max : progress;
+    }
+
+    /**
+     * Clamp the progress to min and max.
+     *
+     * @param progress progress value
+     * @param min      the min progress
+     * @param max      the max progress
+     * @return progress value
+     */
+    static long clamp(long progress, long min, long max) {
+        return progress < min ? min : (progress > max ? max : progress);
+    }
+}
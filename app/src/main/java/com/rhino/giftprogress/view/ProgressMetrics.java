@@ -0,0 +1,217 @@
+package com.rhino.giftprogress.view;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The per instance frame and update counters of a progress view, only recorded while
+ * enabled with {@code setMetricsEnabled(true)}. The draw and animation counters are
+ * updated on the UI thread, the update counters may be updated from any thread.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class ProgressMetrics {
+
+    /**
+     * The upper bounds of the draw duration histogram buckets in nanoseconds, the last
+     * bucket holds all the draws slower than the last bound.
+     */
+    public static final long[] DRAW_BUCKET_BOUNDS_NANOS = {
+            1000000L, 2000000L, 4000000L, 8000000L, 16000000L, 32000000L
+    };
+
+    private final long[] mDrawHistogram = new long[DRAW_BUCKET_BOUNDS_NANOS.length + 1];
+    private long mDrawCount;
+    private long mDrawNanos;
+    private long mMaxDrawNanos;
+    private long mAnimatorTickCount;
+    private long mAnimationCount;
+    private long mAnimationFrameCount;
+    private long mCurrentAnimationFrames;
+    private long mLayerAnimationCount;
+    private long mLayerDrawCount;
+    private long mLayerDrawNanos;
+    private long mAnimationDrawCount;
+    private long mAnimationDrawNanos;
+    private long mListenerDispatchCount;
+    private final AtomicLong mSetProgressCount = new AtomicLong();
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+
+    void onDraw(long nanos, boolean animating, boolean layered) {
+        mDrawCount++;
+        mDrawNanos += nanos;
+        if (nanos > mMaxDrawNanos) {
+            mMaxDrawNanos = nanos;
+        }
+        int bucket = 0;
+        while (bucket < DRAW_BUCKET_BOUNDS_NANOS.length && nanos >= DRAW_BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        mDrawHistogram[bucket]++;
+        if (animating) {
+            mCurrentAnimationFrames++;
+            if (layered) {
+                mLayerDrawCount++;
+                mLayerDrawNanos += nanos;
+            } else {
+                mAnimationDrawCount++;
+                mAnimationDrawNanos += nanos;
+            }
+        }
+    }
+
+    void onLayerPromoted() {
+        mLayerAnimationCount++;
+    }
+
+    void onAnimatorTick() {
+        mAnimatorTickCount++;
+    }
+
+    void onAnimationEnd() {
+        mAnimationCount++;
+        mAnimationFrameCount += mCurrentAnimationFrames;
+        mCurrentAnimationFrames = 0;
+    }
+
+    void onListenerDispatch() {
+        mListenerDispatchCount++;
+    }
+
+    void onSetProgress() {
+        mSetProgressCount.incrementAndGet();
+    }
+
+    void onCoalesced() {
+        mCoalescedCount.incrementAndGet();
+    }
+
+    /**
+     * Reset all the counters.
+     */
+    public void reset() {
+        Arrays.fill(mDrawHistogram, 0);
+        mDrawCount = 0;
+        mDrawNanos = 0;
+        mMaxDrawNanos = 0;
+        mAnimatorTickCount = 0;
+        mAnimationCount = 0;
+        mAnimationFrameCount = 0;
+        mCurrentAnimationFrames = 0;
+        mLayerAnimationCount = 0;
+        mLayerDrawCount = 0;
+        mLayerDrawNanos = 0;
+        mAnimationDrawCount = 0;
+        mAnimationDrawNanos = 0;
+        mListenerDispatchCount = 0;
+        mSetProgressCount.set(0);
+        mCoalescedCount.set(0);
+    }
+
+    /**
+     * Return a copy of the current counters, call it on the UI thread.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    public static final class Snapshot {
+        /**
+         * The count of draws in every bucket of {@link #DRAW_BUCKET_BOUNDS_NANOS}.
+         */
+        public final long[] drawHistogram;
+        public final long drawCount;
+        public final long drawNanos;
+        public final long maxDrawNanos;
+        public final long animatorTickCount;
+        public final long animationCount;
+        public final long animationFrameCount;
+        /**
+         * The count of animations run on a hardware layer, see {@link AnimationLayer}.
+         */
+        public final long layerAnimationCount;
+        /**
+         * The count and total duration of the draws during animations on a hardware layer.
+         */
+        public final long layerDrawCount;
+        public final long layerDrawNanos;
+        /**
+         * The count and total duration of the draws during animations without a layer.
+         */
+        public final long animationDrawCount;
+        public final long animationDrawNanos;
+        public final long setProgressCount;
+        public final long listenerDispatchCount;
+        public final long coalescedCount;
+
+        private Snapshot(ProgressMetrics metrics) {
+            this.drawHistogram = metrics.mDrawHistogram.clone();
+            this.drawCount = metrics.mDrawCount;
+            this.drawNanos = metrics.mDrawNanos;
+            this.maxDrawNanos = metrics.mMaxDrawNanos;
+            this.animatorTickCount = metrics.mAnimatorTickCount;
+            this.animationCount = metrics.mAnimationCount;
+            this.animationFrameCount = metrics.mAnimationFrameCount;
+            this.layerAnimationCount = metrics.mLayerAnimationCount;
+            this.layerDrawCount = metrics.mLayerDrawCount;
+            this.layerDrawNanos = metrics.mLayerDrawNanos;
+            this.animationDrawCount = metrics.mAnimationDrawCount;
+            this.animationDrawNanos = metrics.mAnimationDrawNanos;
+            this.setProgressCount = metrics.mSetProgressCount.get();
+            this.listenerDispatchCount = metrics.mListenerDispatchCount;
+            this.coalescedCount = metrics.mCoalescedCount.get();
+        }
+
+        /**
+         * Return the average count of frames drawn per finished animation.
+         *
+         * @return the average frames
+         */
+        public float getFramesPerAnimation() {
+            return animationCount == 0 ? 0 : (float) animationFrameCount / animationCount;
+        }
+
+        /**
+         * Return the average onDraw duration during animations on a hardware layer. On a
+         * hardware accelerated view onDraw only records the display list, which the layer does
+         * not change, so compare the GPU times of gfxinfo or FrameMetrics to see its benefit.
+         *
+         * @return the average nanos
+         */
+        public long getAverageLayerDrawNanos() {
+            return layerDrawCount == 0 ? 0 : layerDrawNanos / layerDrawCount;
+        }
+
+        /**
+         * Return the average onDraw duration during animations without a layer.
+         *
+         * @return the average nanos
+         */
+        public long getAverageAnimationDrawNanos() {
+            return animationDrawCount == 0 ? 0 : animationDrawNanos / animationDrawCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ProgressMetrics{drawHistogram=" + Arrays.toString(drawHistogram)
+                    + ", drawCount=" + drawCount
+                    + ", drawNanos=" + drawNanos
+                    + ", maxDrawNanos=" + maxDrawNanos
+                    + ", animatorTickCount=" + animatorTickCount
+                    + ", animationCount=" + animationCount
+                    + ", animationFrameCount=" + animationFrameCount
+                    + ", layerAnimationCount=" + layerAnimationCount
+                    + ", layerDrawCount=" + layerDrawCount
+                    + ", layerDrawNanos=" + layerDrawNanos
+                    + ", animationDrawCount=" + animationDrawCount
+                    + ", animationDrawNanos=" + animationDrawNanos
+                    + ", setProgressCount=" + setProgressCount
+                    + ", listenerDispatchCount=" + listenerDispatchCount
+                    + ", coalescedCount=" + coalescedCount
+                    + '}';
+        }
+    }
+}
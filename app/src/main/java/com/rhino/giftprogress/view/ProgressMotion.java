@@ -0,0 +1,252 @@
+package com.rhino.giftprogress.view;
+
+/**
+ * The physics moving a progress coordinate towards its target, stepped by a
+ * {@link ProgressAnimationEngine}. A motion keeps its position and velocity when the target
+ * changes mid-flight, so a burst of progress updates bends the running motion instead of
+ * restarting it. Every view needs its own instance, a motion must not be shared.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public abstract class ProgressMotion {
+
+    private float mPosition;
+    private float mVelocity;
+    private float mTarget;
+
+    boolean mRunning;
+    ProgressAnimationEngine mEngine;
+    ProgressAnimationEngine.Callback mCallback;
+
+    /**
+     * Create a spring, it starts at rest and keeps its velocity when retargeted.
+     *
+     * @param stiffness    the stiffness, e.g. 200 for a soft and 1500 for a stiff spring
+     * @param dampingRatio the damping ratio, 1 for no overshoot, less than 1 to bounce
+     * @return the motion
+     */
+    public static ProgressMotion spring(float stiffness, float dampingRatio) {
+        return new Spring(stiffness, dampingRatio);
+    }
+
+    /**
+     * Create a motion which decelerates to the target in a fixed duration, the same curve as
+     * a {@link android.view.animation.DecelerateInterpolator} when it starts at rest.
+     * When retargeted, the curve starts again from the current position and velocity.
+     *
+     * @param durationMillis the duration in milliseconds
+     * @return the motion
+     */
+    public static ProgressMotion decelerate(long durationMillis) {
+        return new Decelerate(durationMillis);
+    }
+
+    public final float getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * Get the velocity.
+     *
+     * @return the velocity in coordinates per second
+     */
+    public final float getVelocity() {
+        return mVelocity;
+    }
+
+    public final float getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Return true while the motion is stepped by an engine.
+     *
+     * @return true if running
+     */
+    public final boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Set the position and velocity, called by the physics.
+     *
+     * @param position the position
+     * @param velocity the velocity in coordinates per second
+     */
+    protected final void setState(float position, float velocity) {
+        this.mPosition = position;
+        this.mVelocity = velocity;
+    }
+
+    void start(float position, float target) {
+        mPosition = position;
+        mVelocity = 0;
+        mTarget = target;
+        onStart(false);
+    }
+
+    void retarget(float target) {
+        mTarget = target;
+        onStart(true);
+    }
+
+    boolean step(float seconds) {
+        if (onStep(seconds)) {
+            return true;
+        }
+        setState(mTarget, 0);
+        return false;
+    }
+
+    /**
+     * Called when the motion starts or its target changes.
+     *
+     * @param retarget false if started at rest, true if the target changed mid-flight and
+     *                 the position and velocity are kept
+     */
+    protected abstract void onStart(boolean retarget);
+
+    /**
+     * Advance the motion, update the state with {@link #setState(float, float)}.
+     *
+     * @param seconds the time since the last step, may be 0
+     * @return false when the motion has come to rest at the target
+     */
+    protected abstract boolean onStep(float seconds);
+
+    /**
+     * Return the start velocity of a decelerate curve to the target. At rest the curve is
+     * 1 - (1 - t)^2, a running velocity is kept unless it would overshoot the target.
+     *
+     * @param distance the distance to the target
+     * @param velocity the current velocity
+     * @param duration the duration in seconds
+     * @param retarget false if starting at rest
+     * @return the start velocity
+     */
+    static float decelerateVelocity(float distance, float velocity, float duration, boolean retarget) {
+        if (!retarget) {
+            // starting at 2 * distance / duration gives the decelerate curve 1 - (1 - t)^2
+            return 2 * distance / duration;
+        } else if (velocity * distance > 0 && Math.abs(velocity * duration) > Math.abs(3 * distance)) {
+            // faster than this would overshoot the target
+            return 3 * distance / duration;
+        }
+        return velocity;
+    }
+
+    /**
+     * Return the position on a cubic Hermite curve ending at rest.
+     *
+     * @param p0 the start position
+     * @param m0 the start velocity multiplied by the duration
+     * @param p1 the end position
+     * @param t  the time, 0 to 1
+     * @return the position
+     */
+    static float hermitePosition(float p0, float m0, float p1, float t) {
+        float t2 = t * t;
+        float t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * p0 + (t3 - 2 * t2 + t) * m0 + (-2 * t3 + 3 * t2) * p1;
+    }
+
+    /**
+     * Return the slope on a cubic Hermite curve ending at rest, divide by the duration
+     * for the velocity.
+     *
+     * @param p0 the start position
+     * @param m0 the start velocity multiplied by the duration
+     * @param p1 the end position
+     * @param t  the time, 0 to 1
+     * @return the slope
+     */
+    static float hermiteSlope(float p0, float m0, float p1, float t) {
+        float t2 = t * t;
+        return (6 * t2 - 6 * t) * p0 + (3 * t2 - 4 * t + 1) * m0 + (-6 * t2 + 6 * t) * p1;
+    }
+
+    /**
+     * A damped spring of unit mass, integrated in small sub steps so it stays stable
+     * on long frames.
+     */
+    private static final class Spring extends ProgressMotion {
+
+        private static final float MAX_SUB_STEP_SECONDS = 1 / 240f;
+        private static final float REST_DISTANCE = 0.5f;
+        private static final float REST_VELOCITY = 10f;
+
+        private final float mStiffness;
+        private final float mDamping;
+
+        Spring(float stiffness, float dampingRatio) {
+            if (stiffness <= 0 || dampingRatio <= 0) {
+                throw new IllegalArgumentException("stiffness and damping ratio must be > 0");
+            }
+            this.mStiffness = stiffness;
+            this.mDamping = (float) (2 * dampingRatio * Math.sqrt(stiffness));
+        }
+
+        @Override
+        protected void onStart(boolean retarget) {
+        }
+
+        @Override
+        protected boolean onStep(float seconds) {
+            float position = getPosition();
+            float velocity = getVelocity();
+            float target = getTarget();
+            while (seconds > 0) {
+                float h = Math.min(seconds, MAX_SUB_STEP_SECONDS);
+                float acceleration = -mStiffness * (position - target) - mDamping * velocity;
+                velocity += acceleration * h;
+                position += velocity * h;
+                seconds -= h;
+            }
+            setState(position, velocity);
+            return Math.abs(position - target) >= REST_DISTANCE || Math.abs(velocity) >= REST_VELOCITY;
+        }
+    }
+
+    /**
+     * A cubic Hermite curve from the start position and velocity to the target at rest.
+     */
+    private static final class Decelerate extends ProgressMotion {
+
+        private final float mDuration;
+        private float mElapsed;
+        private float mStartPosition;
+        private float mStartVelocity;
+
+        Decelerate(long durationMillis) {
+            if (durationMillis <= 0) {
+                throw new IllegalArgumentException("duration <= 0: " + durationMillis);
+            }
+            this.mDuration = durationMillis / 1000f;
+        }
+
+        @Override
+        protected void onStart(boolean retarget) {
+            float velocity = decelerateVelocity(getTarget() - getPosition(), getVelocity(), mDuration, retarget);
+            if (retarget && velocity != getVelocity()) {
+                setState(getPosition(), velocity);
+            }
+            mStartPosition = getPosition();
+            mStartVelocity = velocity;
+            mElapsed = 0;
+        }
+
+        @Override
+        protected boolean onStep(float seconds) {
+            mElapsed += seconds;
+            if (mElapsed >= mDuration) {
+                return false;
+            }
+            float t = mElapsed / mDuration;
+            float m0 = mStartVelocity * mDuration;
+            setState(hermitePosition(mStartPosition, m0, getTarget(), t),
+                    hermiteSlope(mStartPosition, m0, getTarget(), t) / mDuration);
+            return true;
+        }
+    }
+}
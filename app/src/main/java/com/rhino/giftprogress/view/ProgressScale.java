@@ -0,0 +1,94 @@
+package com.rhino.giftprogress.view;
+
+import java.util.Arrays;
+
+/**
+ * Map a progress value to a position along the track. The position only needs to be
+ * non-decreasing, the view normalizes it between its min and max progress and compiles
+ * it into a lookup table once per layout, so it may be expensive to compute.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public abstract class ProgressScale {
+
+    /**
+     * The default scale, the progress is spread evenly along the track.
+     */
+    public static final ProgressScale LINEAR = new ProgressScale() {
+        @Override
+        public double position(double progress) {
+            return progress;
+        }
+    };
+
+    /**
+     * Return the position of the progress.
+     *
+     * @param progress progress value
+     * @return the position, non-decreasing with the progress
+     */
+    public abstract double position(double progress);
+
+    /**
+     * Return a logarithmic scale, the progress below 0 is treated as 0.
+     *
+     * @return the scale
+     */
+    public static ProgressScale log() {
+        return new ProgressScale() {
+            @Override
+            public double position(double progress) {
+                return Math.log1p(Math.max(0, progress));
+            }
+        };
+    }
+
+    /**
+     * Return a scale which gives every interval between two adjacent breakpoints the same
+     * length, e.g. the gift tiers 10, 50, 200, 1000.
+     *
+     * @param breakpoints the breakpoints in ascending order, at least two
+     * @return the scale
+     */
+    public static ProgressScale breakpoints(double... breakpoints) {
+        double[] positions = new double[breakpoints.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        return piecewise(breakpoints, positions);
+    }
+
+    /**
+     * Return a piecewise linear scale through the given points, it is extended linearly
+     * beyond the first and last point.
+     *
+     * @param progress  the progress of the points in ascending order, at least two
+     * @param positions the position of the points in ascending order
+     * @return the scale
+     */
+    public static ProgressScale piecewise(double[] progress, double[] positions) {
+        if (progress.length < 2 || progress.length != positions.length) {
+            throw new IllegalArgumentException("need at least two points of the same count");
+        }
+        for (int i = 1; i < progress.length; i++) {
+            if (progress[i] <= progress[i - 1] || positions[i] < positions[i - 1]) {
+                throw new IllegalArgumentException("the points must be ascending");
+            }
+        }
+        final double[] xs = progress.clone();
+        final double[] ys = positions.clone();
+        return new ProgressScale() {
+            @Override
+            public double position(double value) {
+                int index = Arrays.binarySearch(xs, value);
+                if (index >= 0) {
+                    return ys[index];
+                }
+                // the interval before the insertion point, clamped to the first and last one
+                int i = Math.min(Math.max(-index - 2, 0), xs.length - 2);
+                return ys[i] + (ys[i + 1] - ys[i]) * (value - xs[i]) / (xs[i + 1] - xs[i]);
+            }
+        };
+    }
+}
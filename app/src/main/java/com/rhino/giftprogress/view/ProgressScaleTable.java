@@ -0,0 +1,159 @@
+package com.rhino.giftprogress.view;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ProgressScale} compiled into a table of coordinates for one min/max progress and
+ * track length, so mapping a progress is a binary search plus a linear interpolation.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class ProgressScaleTable {
+
+    private static final int MAX_SAMPLES = 1024;
+
+    private long[] mProgress = new long[0];
+    private float[] mCoords = new float[0];
+    private int mLast;
+    private boolean mEveryProgress;
+    private long mMinProgress;
+    private long mMaxProgress;
+
+    /**
+     * Compile the scale. Ranges of up to {@link #MAX_SAMPLES} values are sampled at every
+     * integer progress and are exact. Larger ranges are sampled at even steps of the progress
+     * and at even steps of the coordinate, so two adjacent samples are never more than a
+     * pixel apart, even where a non-linear scale spends most of the track on a small part
+     * of the range, e.g. the low tiers of {@link ProgressScale#breakpoints(double...)}.
+     *
+     * @param scale       the scale
+     * @param minProgress the min progress
+     * @param maxProgress the max progress
+     * @param length      the length of the track, centered at 0
+     */
+    void compile(ProgressScale scale, long minProgress, long maxProgress, int length) {
+        mMinProgress = minProgress;
+        mMaxProgress = maxProgress;
+        double range = ProgressMath.difference(maxProgress, minProgress);
+        double minPosition = scale.position(minProgress);
+        double positionRange = scale.position(maxProgress) - minPosition;
+        mEveryProgress = range <= MAX_SAMPLES;
+        int count;
+        if (mEveryProgress) {
+            count = (int) Math.max(0, range) + 1;
+            ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                mProgress[i] = minProgress + i;
+            }
+        } else {
+            ensureCapacity(2 * (MAX_SAMPLES + 1));
+            for (int i = 0; i <= MAX_SAMPLES; i++) {
+                double fraction = (double) i / MAX_SAMPLES;
+                mProgress[i] = ProgressMath.progressAt(fraction, minProgress, maxProgress);
+                mProgress[MAX_SAMPLES + 1 + i] = progressAtPosition(scale, minPosition, positionRange,
+                        fraction, minProgress, maxProgress);
+            }
+            Arrays.sort(mProgress, 0, 2 * (MAX_SAMPLES + 1));
+            count = 1;
+            for (int i = 1; i < 2 * (MAX_SAMPLES + 1); i++) {
+                if (mProgress[i] != mProgress[count - 1]) {
+                    mProgress[count++] = mProgress[i];
+                }
+            }
+        }
+        mLast = count - 1;
+        for (int i = 0; i < count; i++) {
+            double fraction = positionFraction(scale, minPosition, positionRange, mProgress[i]);
+            mCoords[i] = (float) (length * fraction - length / 2d);
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (mProgress.length < count) {
+            mProgress = new long[count];
+            mCoords = new float[count];
+        }
+    }
+
+    private static double positionFraction(ProgressScale scale, double minPosition, double positionRange,
+                                           long progress) {
+        return positionRange > 0 ? (scale.position(progress) - minPosition) / positionRange : 0;
+    }
+
+    /**
+     * Return the first progress whose position reaches the fraction of the position range,
+     * the position is non-decreasing so it is found by a binary search.
+     */
+    private static long progressAtPosition(ProgressScale scale, double minPosition, double positionRange,
+                                           double fraction, long minProgress, long maxProgress) {
+        long low = minProgress;
+        long high = maxProgress;
+        while (low < high) {
+            // the floor of the average, without overflow
+            long mid = (low & high) + ((low ^ high) >> 1);
+            if (positionFraction(scale, minPosition, positionRange, mid) >= fraction) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Return the coordinate of the progress, clamped to the track.
+     *
+     * @param progress progress value
+     * @return the coordinate
+     */
+    float progress2Coord(long progress) {
+        if (progress <= mProgress[0]) {
+            return mCoords[0];
+        } else if (progress >= mProgress[mLast]) {
+            return mCoords[mLast];
+        } else if (mEveryProgress) {
+            return mCoords[(int) (progress - mProgress[0])];
+        }
+        int low = 0;
+        int high = mLast;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (mProgress[mid] <= progress) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        double t = ProgressMath.difference(progress, mProgress[low])
+                / ProgressMath.difference(mProgress[high], mProgress[low]);
+        return mCoords[low] + (mCoords[high] - mCoords[low]) * (float) t;
+    }
+
+    /**
+     * Return the progress at the coordinate, clamped to min and max progress.
+     *
+     * @param coord the coordinate
+     * @return progress value
+     */
+    long coord2Progress(float coord) {
+        if (coord <= mCoords[0]) {
+            return mMinProgress;
+        } else if (coord >= mCoords[mLast]) {
+            return mMaxProgress;
+        }
+        int low = 0;
+        int high = mLast;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (mCoords[mid] <= coord) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        float span = mCoords[high] - mCoords[low];
+        float t = span > 0 ? (coord - mCoords[low]) / span : 0;
+        return ProgressMath.progressAt(t, mProgress[low], mProgress[high]);
+    }
+}
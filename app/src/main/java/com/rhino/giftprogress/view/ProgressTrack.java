@@ -0,0 +1,309 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.GradientDrawable;
+
+/**
+ * The progress engine and the track layer shared by the progress views. It holds the
+ * min/max/current progress, maps the progress to the track coordinates and draws the track
+ * background and fill. It does not depend on a View, the coordinates are relative to the
+ * track center, so it can be driven and tested on its own.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class ProgressTrack {
+
+    /**
+     * The horizontal padding of the track inside the view.
+     */
+    static final int TRACK_PADDING = 100;
+
+    private long mMinProgress;
+    private long mMaxProgress;
+    private long mCurrProgress;
+    private int mProgressLength;
+    private int mProgressHeight;
+    private int mProgressCorner;
+
+    private ProgressScale mProgressScale;
+    private ProgressScaleTable mProgressScaleTable = new ProgressScaleTable();
+
+    private GradientDrawable mBackgroundDrawable;
+    private GradientDrawable mFillDrawable;
+    private Rect mBackgroundRect = new Rect();
+    private Rect mFillRect = new Rect();
+    private Rect mClipRect = new Rect();
+    private long mVisibleMinProgress;
+    private long mVisibleMaxProgress;
+
+    /**
+     * @param height          the half height of the track
+     * @param corner          the corner radius of the track
+     * @param backgroundColor the color of the track
+     * @param fillColor       the color of the fill
+     */
+    ProgressTrack(int height, int corner, int backgroundColor, int fillColor) {
+        mProgressHeight = height;
+        mProgressCorner = corner;
+
+        mBackgroundDrawable = new GradientDrawable();
+        mBackgroundDrawable.setShape(GradientDrawable.RECTANGLE);
+        mBackgroundDrawable.setColor(backgroundColor);
+        mBackgroundDrawable.setCornerRadius(corner);
+
+        mFillDrawable = new GradientDrawable();
+        mFillDrawable.setShape(GradientDrawable.RECTANGLE);
+        mFillDrawable.setColor(fillColor);
+        mFillDrawable.setCornerRadius(corner);
+    }
+
+    /**
+     * Lay out the track for the view size, the track is centered and the fill starts empty.
+     *
+     * @param width  the view width
+     * @param height the view height
+     * @return false if the size is empty, nothing is changed
+     */
+    boolean setSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        mProgressLength = width - TRACK_PADDING;
+        mBackgroundRect.set(-mProgressLength / 2, -mProgressHeight, mProgressLength / 2, mProgressHeight);
+        mFillRect.set(-mProgressLength / 2, -mProgressHeight, -mProgressLength / 2, mProgressHeight);
+        updateScaleTable();
+        return true;
+    }
+
+    /**
+     * Set the range, the current progress is not clamped.
+     *
+     * @param minProgress the min progress
+     * @param maxProgress the max progress
+     * @return true if the range changed
+     */
+    boolean setRange(long minProgress, long maxProgress) {
+        if (minProgress == mMinProgress && maxProgress == mMaxProgress) {
+            return false;
+        }
+        mMinProgress = minProgress;
+        mMaxProgress = maxProgress;
+        updateScaleTable();
+        return true;
+    }
+
+    /**
+     * Set the scale which maps the progress to the track.
+     *
+     * @param scale the scale, null for {@link ProgressScale#LINEAR}
+     */
+    void setScale(ProgressScale scale) {
+        mProgressScale = ProgressScale.LINEAR == scale ? null : scale;
+        updateScaleTable();
+    }
+
+    boolean hasScale() {
+        return null != mProgressScale;
+    }
+
+    /**
+     * Compile the progress scale for the current length and min/max progress.
+     */
+    private void updateScaleTable() {
+        if (null != mProgressScale) {
+            mProgressScaleTable.compile(mProgressScale, mMinProgress, mMaxProgress, mProgressLength);
+        }
+    }
+
+    long getMinProgress() {
+        return mMinProgress;
+    }
+
+    long getMaxProgress() {
+        return mMaxProgress;
+    }
+
+    long getProgress() {
+        return mCurrProgress;
+    }
+
+    /**
+     * Set the current progress, the fill is not moved.
+     *
+     * @param progress the progress, already clamped
+     */
+    void setProgress(long progress) {
+        mCurrProgress = progress;
+    }
+
+    /**
+     * Clamp the progress to min and max.
+     *
+     * @param progress progress
+     * @return the clamped progress
+     */
+    long clampProgress(long progress) {
+        if (progress <= mMinProgress) {
+            return mMinProgress;
+        } else if (progress >= mMaxProgress) {
+            return mMaxProgress;
+        }
+        return progress;
+    }
+
+    int getLength() {
+        return mProgressLength;
+    }
+
+    int getCorner() {
+        return mProgressCorner;
+    }
+
+    Rect getBackgroundRect() {
+        return mBackgroundRect;
+    }
+
+    Rect getFillRect() {
+        return mFillRect;
+    }
+
+    /**
+     * Move the end of the fill. Reaching an end of the track sets the current progress
+     * to min or max.
+     *
+     * @param coord the coordinate of the fill end
+     * @return true if the current progress changed
+     */
+    boolean moveFill(float coord) {
+        long lastProgress = mCurrProgress;
+        float halfLength = mProgressLength / 2;
+        if (coord > halfLength) {
+            coord = halfLength;
+            mCurrProgress = mMaxProgress;
+        } else if (coord < -halfLength) {
+            coord = -halfLength;
+            mCurrProgress = mMinProgress;
+        }
+        mFillRect.right = (int) coord;
+        return lastProgress != mCurrProgress;
+    }
+
+    /**
+     * Check the coordinate
+     *
+     * @param coord coordinate
+     * @return the new coordinate
+     */
+    float checkCoord(float coord) {
+        float halfLength = mProgressLength / 2;
+        if (coord > halfLength) {
+            return halfLength;
+        } else if (coord < -halfLength) {
+            return -halfLength;
+        }
+        return coord;
+    }
+
+    /**
+     * Return x or y coordinate by progress value.
+     *
+     * @param progress progress value
+     * @return x or y coordinate
+     */
+    float progress2Coord(long progress) {
+        if (null != mProgressScale) {
+            return mProgressScaleTable.progress2Coord(progress);
+        }
+        return (float) (mProgressLength * ProgressMath.fraction(progress, mMinProgress, mMaxProgress)
+                - mProgressLength / 2d);
+    }
+
+    /**
+     * Return the progress at the coordinate of the track, clamped to min and max.
+     *
+     * @param coord x or y coordinate
+     * @return progress value
+     */
+    long trackProgress(float coord) {
+        float halfLength = mProgressLength / 2;
+        if (coord >= halfLength) {
+            return mMaxProgress;
+        } else if (coord <= -halfLength) {
+            return mMinProgress;
+        } else if (null != mProgressScale) {
+            return mProgressScaleTable.coord2Progress(coord);
+        }
+        return ProgressMath.progressAt((coord + mProgressLength / 2d) / mProgressLength,
+                mMinProgress, mMaxProgress);
+    }
+
+    /**
+     * Compute the progress range of the generated markers which may be visible in the clip
+     * of the canvas, see {@link #getVisibleMinProgress()} and {@link #getVisibleMaxProgress()}.
+     *
+     * @param canvas Canvas, translated to the track center
+     * @param margin the largest half width of the markers
+     * @return false if nothing is visible
+     */
+    boolean updateVisibleRange(Canvas canvas, int margin) {
+        if (mProgressLength <= 0 || !canvas.getClipBounds(mClipRect)) {
+            return false;
+        }
+        mVisibleMinProgress = trackProgress(mClipRect.left - margin - 1);
+        mVisibleMaxProgress = trackProgress(mClipRect.right + margin + 1);
+        return true;
+    }
+
+    long getVisibleMinProgress() {
+        return mVisibleMinProgress;
+    }
+
+    long getVisibleMaxProgress() {
+        return mVisibleMaxProgress;
+    }
+
+    /**
+     * Return the index before the first marker after the pixel, so the markers which
+     * would be drawn at the same pixel are skipped without evaluating them.
+     *
+     * @param interval the interval
+     * @param index    the index of the marker at the pixel
+     * @param x        the pixel
+     * @return the index to continue from
+     */
+    long nextPixelIndex(MarkerInterval interval, long index, int x) {
+        return Math.max(index, interval.ceilIndex(trackProgress(x + 1)) - 1);
+    }
+
+    /**
+     * Return the count of generated markers, at most one per pixel of the track.
+     *
+     * @param interval the interval, may be null
+     * @return the count of markers
+     */
+    int getGeneratedCount(MarkerInterval interval) {
+        return null == interval ? 0 : (int) Math.min(interval.getCount(), mProgressLength);
+    }
+
+    /**
+     * Draw the track background.
+     *
+     * @param canvas Canvas, translated to the track center
+     */
+    void drawBackground(Canvas canvas) {
+        mBackgroundDrawable.setBounds(mBackgroundRect);
+        mBackgroundDrawable.draw(canvas);
+    }
+
+    /**
+     * Draw the fill from the start of the track to the current coordinate.
+     *
+     * @param canvas Canvas, translated to the track center
+     */
+    void drawFill(Canvas canvas) {
+        mFillDrawable.setBounds(mFillRect);
+        mFillDrawable.draw(canvas);
+    }
+}
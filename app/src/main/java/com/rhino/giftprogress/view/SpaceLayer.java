@@ -0,0 +1,254 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * The layer of the progress spaces shared by the progress views. The spaces are stored as
+ * parallel arrays and may be generated at a regular interval, only the spaces inside the
+ * clip of the canvas are drawn.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class SpaceLayer {
+
+    /**
+     * Styles a generated space, the view maps its own space type to the width and color.
+     */
+    interface Styler {
+        /**
+         * Call {@link SpaceLayer#setStyle(int, int)} with the width and color of the space.
+         *
+         * @param layer    the layer
+         * @param progress the progress of the space
+         * @param index    the index of the space in the interval
+         */
+        void onStyle(SpaceLayer layer, long progress, long index);
+    }
+
+    private int mCount;
+    private long[] mValues = new long[0];
+    private int[] mWidths = new int[0];
+    private int[] mColors = new int[0];
+    private int[] mCoords = new int[0];
+    private MarkerIndex mIndex = new MarkerIndex();
+    private boolean mSharedCoords;
+
+    private MarkerInterval mInterval;
+    private Styler mStyler;
+    private int mStyleWidth;
+    private int mStyleColor;
+    private int mGeneratedMaxWidth = -1;
+    private int mGeneratedMargin;
+
+    private Rect mClipRect = new Rect();
+    private Rect mSpaceRect = new Rect();
+
+    /**
+     * Set the spaces, the arrays are used directly without copying.
+     *
+     * @param count  the count of spaces
+     * @param values the progress value of every space
+     * @param widths the width of every space
+     * @param colors the color of every space
+     */
+    void setSpaces(int count, long[] values, int[] widths, int[] colors) {
+        mCount = count;
+        mValues = values;
+        mWidths = widths;
+        mColors = colors;
+    }
+
+    /**
+     * Generate the spaces at a regular interval.
+     *
+     * @param interval the progress of the spaces, null to remove
+     * @param styler   style every space
+     * @param maxWidth the largest width of the spaces, or -1 to find it by styling them in
+     *                 {@link #updateGeneratedMargin(ProgressTrack)}
+     */
+    void setGenerator(MarkerInterval interval, Styler styler, int maxWidth) {
+        mInterval = null == styler ? null : interval;
+        mStyler = styler;
+        mGeneratedMaxWidth = maxWidth;
+        mGeneratedMargin = Math.max(0, maxWidth) / 2;
+    }
+
+    /**
+     * Compute how far the generated spaces may reach out of their coordinate, so the spaces
+     * reaching into the clip are never culled. Without a max width every space which can be
+     * drawn is styled, at most one per pixel of the track, so only call it when the track
+     * or the generator changed.
+     *
+     * @param track the track
+     */
+    void updateGeneratedMargin(ProgressTrack track) {
+        if (null == mInterval || mGeneratedMaxWidth >= 0) {
+            return;
+        }
+        MarkerInterval interval = mInterval;
+        int maxWidth = 0;
+        int lastX = Integer.MIN_VALUE;
+        for (long i = interval.ceilIndex(track.getMinProgress()),
+             last = interval.floorIndex(track.getMaxProgress()); i <= last; i++) {
+            long progress = interval.progressAt(i);
+            int x = (int) track.progress2Coord(progress);
+            if (x == lastX) {
+                i = track.nextPixelIndex(interval, i, x);
+                continue;
+            }
+            lastX = x;
+            mStyler.onStyle(this, progress, i);
+            maxWidth = Math.max(maxWidth, mStyleWidth);
+        }
+        mGeneratedMargin = maxWidth / 2;
+    }
+
+    /**
+     * Set the width and color of the generated space being styled.
+     *
+     * @param width the width
+     * @param color the color
+     */
+    void setStyle(int width, int color) {
+        mStyleWidth = width;
+        mStyleColor = color;
+    }
+
+    int getCount() {
+        return mCount;
+    }
+
+    MarkerInterval getInterval() {
+        return mInterval;
+    }
+
+    /**
+     * Return the count of spaces, the generated ones count up to the track length.
+     *
+     * @param track the track
+     * @return the count of spaces
+     */
+    int getMarkerCount(ProgressTrack track) {
+        return (int) Math.min((long) mCount + track.getGeneratedCount(mInterval), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Use coordinates computed and shared elsewhere instead of computing them,
+     * they are not changed by this layer.
+     *
+     * @param coords the coordinate of every space
+     * @param index  the index of the coordinates
+     */
+    void setCoords(int[] coords, MarkerIndex index) {
+        mCoords = coords;
+        mIndex = index;
+        mSharedCoords = true;
+    }
+
+    int[] getCoords() {
+        return mCoords;
+    }
+
+    MarkerIndex getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * Recompute the coordinates of the spaces, only needed when the spaces or the track changed.
+     *
+     * @param track the track
+     */
+    void updateCoords(ProgressTrack track) {
+        if (mSharedCoords) {
+            mCoords = new int[mCount];
+            mIndex = new MarkerIndex();
+            mSharedCoords = false;
+        } else if (mCoords.length < mCount) {
+            mCoords = new int[mCount];
+        }
+        int margin = 0;
+        for (int i = 0; i < mCount; i++) {
+            mCoords[i] = (int) track.progress2Coord(mValues[i]);
+            margin = Math.max(margin, mWidths[i] / 2);
+        }
+        mIndex.build(mCoords, mCount);
+        mIndex.setMargin(margin);
+        updateGeneratedMargin(track);
+    }
+
+    /**
+     * Return whether a space is at the progress, it is hidden while the progress is current.
+     *
+     * @param progress progress value
+     * @param coord    the coordinate of the progress
+     * @return true if a space is at the progress
+     */
+    boolean hasSpaceAt(long progress, int coord) {
+        for (int p = mIndex.first(coord), end = mIndex.end(coord); p < end; p++) {
+            if (mValues[mIndex.get(p)] == progress) {
+                return true;
+            }
+        }
+        return null != mInterval && mInterval.contains(progress);
+    }
+
+    /**
+     * Draw the spaces inside the clip of the canvas.
+     *
+     * @param canvas         Canvas, translated to the track center
+     * @param track          the track
+     * @param paint          the paint, its color is changed
+     * @param hiddenProgress the progress at which no space is drawn
+     */
+    void draw(Canvas canvas, ProgressTrack track, Paint paint, long hiddenProgress) {
+        if (mCount == 0 && null == mInterval) {
+            return;
+        }
+        Rect fillRect = track.getFillRect();
+        int paintColor = mCount == 0 ? 0 : mColors[0];
+        paint.setColor(paintColor);
+        if (mCount > 0 && canvas.getClipBounds(mClipRect)) {
+            int end = mIndex.end(mClipRect.right);
+            for (int p = mIndex.first(mClipRect.left); p < end; p++) {
+                int i = mIndex.get(p);
+                if (mValues[i] == hiddenProgress) {
+                    continue;
+                }
+                if (paintColor != mColors[i]) {
+                    paintColor = mColors[i];
+                    paint.setColor(paintColor);
+                }
+                int x = mCoords[i];
+                mSpaceRect.set(x - mWidths[i] / 2, fillRect.top, x + mWidths[i] / 2, fillRect.bottom);
+                canvas.drawRect(mSpaceRect, paint);
+            }
+        }
+        if (null != mInterval && track.updateVisibleRange(canvas, mGeneratedMargin)) {
+            MarkerInterval interval = mInterval;
+            int lastX = Integer.MIN_VALUE;
+            for (long i = interval.ceilIndex(track.getVisibleMinProgress()),
+                 last = interval.floorIndex(track.getVisibleMaxProgress()); i <= last; i++) {
+                long progress = interval.progressAt(i);
+                int x = (int) track.progress2Coord(progress);
+                if (x == lastX) {
+                    i = track.nextPixelIndex(interval, i, x);
+                    continue;
+                }
+                lastX = x;
+                if (progress == hiddenProgress) {
+                    continue;
+                }
+                mStyler.onStyle(this, progress, i);
+                if (paintColor != mStyleColor) {
+                    paintColor = mStyleColor;
+                    paint.setColor(paintColor);
+                }
+                mSpaceRect.set(x - mStyleWidth / 2, fillRect.top, x + mStyleWidth / 2, fillRect.bottom);
+                canvas.drawRect(mSpaceRect, paint);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.rhino.giftprogress.view;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the range, segments and spaces of {@link SpaceProgressView}, bound
+ * with {@link SpaceProgressView#bind(SpaceProgressConfig, long)}. One config can be shared by
+ * all the rows of a list which look the same, they also share the coordinates computed for
+ * the track length, so binding a row does not allocate or compute anything per marker.
+ * Only use it from the UI thread.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public final class SpaceProgressConfig {
+
+    private final long mMinProgress;
+    private final long mMaxProgress;
+    private final int mProgressCount;
+    private final long[] mProgressValues;
+    private final int[] mProgressPreColors;
+    private final int[] mProgressCurrColors;
+    private final int[] mProgressNextColors;
+    private final int mProgressSpaceCount;
+    private final long[] mProgressSpaceValues;
+    private final int[] mProgressSpaceWidths;
+    private final int[] mProgressSpaceColors;
+
+    private Geometry mGeometry;
+
+    private SpaceProgressConfig(Builder builder) {
+        this.mMinProgress = builder.mMinProgress;
+        this.mMaxProgress = builder.mMaxProgress;
+        this.mProgressCount = builder.mProgressCount;
+        this.mProgressValues = Arrays.copyOf(builder.mProgressValues, builder.mProgressCount);
+        this.mProgressPreColors = Arrays.copyOf(builder.mProgressPreColors, builder.mProgressCount);
+        this.mProgressCurrColors = Arrays.copyOf(builder.mProgressCurrColors, builder.mProgressCount);
+        this.mProgressNextColors = Arrays.copyOf(builder.mProgressNextColors, builder.mProgressCount);
+        this.mProgressSpaceCount = builder.mProgressSpaceCount;
+        this.mProgressSpaceValues = Arrays.copyOf(builder.mProgressSpaceValues, builder.mProgressSpaceCount);
+        this.mProgressSpaceWidths = Arrays.copyOf(builder.mProgressSpaceWidths, builder.mProgressSpaceCount);
+        this.mProgressSpaceColors = Arrays.copyOf(builder.mProgressSpaceColors, builder.mProgressSpaceCount);
+    }
+
+    public long getMinProgress() {
+        return mMinProgress;
+    }
+
+    public long getMaxProgress() {
+        return mMaxProgress;
+    }
+
+    public int getProgressCount() {
+        return mProgressCount;
+    }
+
+    public int getProgressSpaceCount() {
+        return mProgressSpaceCount;
+    }
+
+    long[] getProgressValues() {
+        return mProgressValues;
+    }
+
+    int[] getProgressPreColors() {
+        return mProgressPreColors;
+    }
+
+    int[] getProgressCurrColors() {
+        return mProgressCurrColors;
+    }
+
+    int[] getProgressNextColors() {
+        return mProgressNextColors;
+    }
+
+    long[] getProgressSpaceValues() {
+        return mProgressSpaceValues;
+    }
+
+    int[] getProgressSpaceWidths() {
+        return mProgressSpaceWidths;
+    }
+
+    int[] getProgressSpaceColors() {
+        return mProgressSpaceColors;
+    }
+
+    /**
+     * Return the coordinates for the track, computed once per track length and shared by
+     * all the views bound to this config.
+     *
+     * @param track the track, its range is the range of this config
+     * @return the coordinates, null if they can not be shared, e.g. with a progress scale
+     */
+    Geometry getGeometry(ProgressTrack track) {
+        if (track.hasScale() || track.getLength() <= 0) {
+            return null;
+        }
+        if (null == mGeometry || mGeometry.mLength != track.getLength()) {
+            // The old geometry may still be used by other views, so it is replaced, not changed.
+            mGeometry = new Geometry(this, track);
+        }
+        return mGeometry;
+    }
+
+    /**
+     * The coordinates of the segments and spaces for one track length.
+     */
+    static final class Geometry {
+        final int mLength;
+        final int[] mProgressStartCoords;
+        final int[] mProgressEndCoords;
+        final int[] mProgressSpaceCoords;
+        final MarkerIndex mProgressSpaceIndex;
+
+        Geometry(SpaceProgressConfig config, ProgressTrack track) {
+            mLength = track.getLength();
+            mProgressStartCoords = new int[config.mProgressCount];
+            mProgressEndCoords = new int[config.mProgressCount];
+            SpaceProgressView.computeSegmentCoords(track, config.mProgressValues, config.mProgressCount,
+                    mProgressStartCoords, mProgressEndCoords);
+            SpaceLayer layer = new SpaceLayer();
+            layer.setSpaces(config.mProgressSpaceCount, config.mProgressSpaceValues,
+                    config.mProgressSpaceWidths, config.mProgressSpaceColors);
+            layer.updateCoords(track);
+            mProgressSpaceCoords = layer.getCoords();
+            mProgressSpaceIndex = layer.getIndex();
+        }
+    }
+
+    public static class Builder {
+        private long mMinProgress;
+        private long mMaxProgress;
+        private int mProgressCount;
+        private long[] mProgressValues = new long[0];
+        private int[] mProgressPreColors = new int[0];
+        private int[] mProgressCurrColors = new int[0];
+        private int[] mProgressNextColors = new int[0];
+        private int mProgressSpaceCount;
+        private long[] mProgressSpaceValues = new long[0];
+        private int[] mProgressSpaceWidths = new int[0];
+        private int[] mProgressSpaceColors = new int[0];
+
+        public Builder setRange(long minProgress, long maxProgress) {
+            this.mMinProgress = minProgress;
+            this.mMaxProgress = maxProgress;
+            return this;
+        }
+
+        /**
+         * Set the progress segments, see {@link SpaceProgressView#setProgressArray}.
+         * The arrays are copied by {@link #build()}.
+         */
+        public Builder setProgressArray(int count, long[] progress, int[] preColors,
+                                        int[] currColors, int[] nextColors) {
+            SpaceProgressView.checkArrayLength(count, progress.length);
+            SpaceProgressView.checkArrayLength(count, preColors.length, currColors.length, nextColors.length);
+            SpaceProgressView.checkAscending(count, progress);
+            this.mProgressCount = count;
+            this.mProgressValues = progress;
+            this.mProgressPreColors = preColors;
+            this.mProgressCurrColors = currColors;
+            this.mProgressNextColors = nextColors;
+            return this;
+        }
+
+        /**
+         * Set the progress spaces, see {@link SpaceProgressView#setProgressSpaceArray}.
+         * The arrays are copied by {@link #build()}.
+         */
+        public Builder setProgressSpaceArray(int count, long[] progress, int[] widths, int[] colors) {
+            SpaceProgressView.checkArrayLength(count, progress.length);
+            SpaceProgressView.checkArrayLength(count, widths.length, colors.length);
+            this.mProgressSpaceCount = count;
+            this.mProgressSpaceValues = progress;
+            this.mProgressSpaceWidths = widths;
+            this.mProgressSpaceColors = colors;
+            return this;
+        }
+
+        public SpaceProgressConfig build() {
+            if (mMaxProgress <= mMinProgress) {
+                throw new IllegalArgumentException("maxProgress " + mMaxProgress
+                        + " <= minProgress " + mMinProgress);
+            }
+            return new SpaceProgressConfig(this);
+        }
+    }
+}
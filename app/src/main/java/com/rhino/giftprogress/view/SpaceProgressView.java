@@ -1,21 +1,21 @@
 package com.rhino.giftprogress.view;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Path;
 import android.graphics.Rect;
-import android.graphics.drawable.GradientDrawable;
-import android.os.Build;
+import android.graphics.RectF;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.animation.DecelerateInterpolator;
+import android.view.ViewConfiguration;
 
 import com.rhino.giftprogress.R;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -30,33 +30,63 @@ public class SpaceProgressView extends View {
     private static final int DEFAULT_MAX_PROGRESS = 100;
     private static final int DEFAULT_PROGRESS_CORNER = 6;
     private static final int DEFAULT_PROGRESS_HEIGHT = 6;
-    private int mProgressBackgroundColor = DEFAULT_PROGRESS_BACKGROUND_COLOR;
-    private int mProgressColor = DEFAULT_PROGRESS_COLOR;
-    private int mMinProgress = DEFAULT_MIN_PROGRESS;
-    private int mMaxProgress = DEFAULT_MAX_PROGRESS;
+    private static final Comparator<Progress> PROGRESS_ORDER = new Comparator<Progress>() {
+        @Override
+        public int compare(Progress o1, Progress o2) {
+            return o1.progress < o2.progress ? -1 : (o1.progress == o2.progress ? 0 : 1);
+        }
+    };
     private int mProgressCorner = DEFAULT_PROGRESS_CORNER;
     private int mProgressHeight = DEFAULT_PROGRESS_HEIGHT;
 
-    private int mProgressLength;
-    private int mCurrProgress;
-    private int mLastProgress;
+    private long mLastProgress;
 
     private int mViewHeight;
     private int mViewWidth;
-    private GradientDrawable mProgressBackgroundDrawable;
-    private GradientDrawable mProgressDrawable;
+    private ProgressTrack mTrack;
+    private SpaceLayer mSpaceLayer;
+    private ProgressAnimator mAnimator;
     private Paint mProgressPaint;
-    private Rect mProgressBackgroundRect;
-    private Rect mProgressRect;
+    private Paint mSegmentPaint;
+
+    private ProgressCoalescer mProgressCoalescer;
+    private volatile ProgressMetrics mMetrics;
+
+    private int mProgressCount;
+    private long[] mProgressValues = new long[0];
+    private int[] mProgressPreColors = new int[0];
+    private int[] mProgressCurrColors = new int[0];
+    private int[] mProgressNextColors = new int[0];
 
-    private ValueAnimator mToDestValueAnimator;
+    private MarkerInterval mProgressInterval;
+    private MarkerInterval.Style<Progress> mProgressStyle;
+    private Progress mGeneratedProgress = new Progress(0, 0, 0, 0);
+    private ProgressSpace mGeneratedProgressSpace = new ProgressSpace(0, 0, 0);
+    private Rect mClipRect;
 
-    private List<Progress> mProgressList = new ArrayList<>();
-    private List<ProgressSpace> mProgressSpaceList = new ArrayList<>();
+    private float[] mStartCornerRadii;
+    private float[] mEndCornerRadii;
+    private Path mStartCapPath;
+    private Path mEndCapPath;
+    private RectF mCapRect;
+    private int mStartCapRight;
+    private int mEndCapLeft;
+
+    private int[] mProgressStartCoords = new int[0];
+    private int[] mProgressEndCoords = new int[0];
+    private boolean mSharedCoords;
+    private SpaceProgressConfig mBoundConfig;
+    private Rect mDirtyRect;
 
     private boolean mIsFromUser = false;
     private OnProgressChangedListener mOnProgressListener;
 
+    private boolean mSeekable;
+    private int mTouchSlop;
+    private float mTouchDownX;
+    private float mTouchDownY;
+    private boolean mDragging;
+
     public SpaceProgressView(Context context) {
         this(context, null);
     }
@@ -71,19 +101,24 @@ public class SpaceProgressView extends View {
     }
 
     private void init(Context context, AttributeSet attrs) {
+        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        int backgroundColor = DEFAULT_PROGRESS_BACKGROUND_COLOR;
+        int progressColor = DEFAULT_PROGRESS_COLOR;
+        long minProgress = DEFAULT_MIN_PROGRESS;
+        long maxProgress = DEFAULT_MAX_PROGRESS;
         if (null != attrs) {
             TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.GiftProgressView);
             mProgressHeight = typedArray.getDimensionPixelSize(R.styleable.GiftProgressView_csb_progress_height,
                     DEFAULT_PROGRESS_HEIGHT);
             mProgressCorner = typedArray.getDimensionPixelSize(R.styleable.GiftProgressView_csb_progress_corner,
                     DEFAULT_PROGRESS_CORNER);
-            mProgressBackgroundColor = typedArray.getColor(R.styleable.GiftProgressView_csb_background_color,
+            backgroundColor = typedArray.getColor(R.styleable.GiftProgressView_csb_background_color,
                     DEFAULT_PROGRESS_BACKGROUND_COLOR);
-            mProgressColor = typedArray.getColor(R.styleable.GiftProgressView_csb_progress_color,
+            progressColor = typedArray.getColor(R.styleable.GiftProgressView_csb_progress_color,
                     DEFAULT_PROGRESS_COLOR);
-            mMinProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_min_value,
+            minProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_min_value,
                     DEFAULT_MIN_PROGRESS);
-            mMaxProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_max_value,
+            maxProgress = typedArray.getInt(R.styleable.GiftProgressView_csb_max_value,
                     DEFAULT_MAX_PROGRESS);
             typedArray.recycle();
         }
@@ -92,18 +127,46 @@ public class SpaceProgressView extends View {
         mProgressPaint.setStyle(Paint.Style.FILL);
         mProgressPaint.setAntiAlias(true);
 
-        mProgressBackgroundDrawable = new GradientDrawable();
-        mProgressBackgroundDrawable.setShape(GradientDrawable.RECTANGLE);
-        mProgressBackgroundDrawable.setColor(mProgressBackgroundColor);
+        mTrack = new ProgressTrack(mProgressHeight, mProgressCorner, backgroundColor, progressColor);
+        mTrack.setRange(minProgress, maxProgress);
+        mTrack.setProgress(minProgress);
+        mSpaceLayer = new SpaceLayer();
+        mAnimator = new ProgressAnimator(this, mTrack, new ProgressAnimator.Target() {
+            @Override
+            public void onMove(float coord) {
+                moveToPoint(coord);
+            }
+
+            @Override
+            public int getMarkerCount() {
+                return SpaceProgressView.this.getMarkerCount();
+            }
 
-        mProgressDrawable = new GradientDrawable();
-        mProgressDrawable.setShape(GradientDrawable.RECTANGLE);
-        mProgressDrawable.setColor(mProgressColor);
+            @Override
+            public ProgressMetrics getMetrics() {
+                return mMetrics;
+            }
+        });
 
-        mProgressBackgroundRect = new Rect();
-        mProgressRect = new Rect();
+        // The segments only change the color of their paint.
+        mSegmentPaint = new Paint();
+        mSegmentPaint.setStyle(Paint.Style.FILL);
+        mSegmentPaint.setAntiAlias(true);
+        mStartCapPath = new Path();
+        mEndCapPath = new Path();
+        mCapRect = new RectF();
 
-        mCurrProgress = mMinProgress;
+        mDirtyRect = new Rect();
+        mClipRect = new Rect();
+        mProgressCoalescer = new ProgressCoalescer(new ProgressCoalescer.Target() {
+            @Override
+            public void onProgress(long progress, boolean anim, boolean fromUser) {
+                applyProgress(progress, anim, fromUser);
+            }
+        });
+
+        mStartCornerRadii = new float[]{mProgressCorner, mProgressCorner, 0, 0, 0, 0, mProgressCorner, mProgressCorner};
+        mEndCornerRadii = new float[]{0, 0, mProgressCorner, mProgressCorner, mProgressCorner, mProgressCorner, 0, 0};
     }
 
     @Override
@@ -126,9 +189,41 @@ public class SpaceProgressView extends View {
         setMeasuredDimension(mViewWidth, mViewHeight);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mProgressCoalescer.resume();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mProgressCoalescer.cancel();
+        // an off-screen row does not need the frames of its animation
+        mAnimator.finish();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        ProgressMetrics metrics = mMetrics;
+        if (null == metrics) {
+            drawLayers(canvas);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        drawLayers(canvas);
+        metrics.onDraw(System.nanoTime() - startNanos,
+                mAnimator.isRunning(),
+                mAnimator.isLayerPromoted());
+    }
+
+    /**
+     * Draw all the layers.
+     *
+     * @param canvas Canvas
+     */
+    private void drawLayers(Canvas canvas) {
         canvas.save();
 
         canvas.translate(mViewWidth / 2, mViewHeight / 2);
@@ -142,19 +237,66 @@ public class SpaceProgressView extends View {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled() || !(mSeekable || isClickable())) {
+            return super.onTouchEvent(event);
+        }
         float x = event.getX();
-        float y = event.getX();
-        switch (event.getAction()) {
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
-                int progress = coord2Progress(x - mProgressLength / 2f);
-                setProgress(progress, false, false);
-                break;
+                mTouchDownX = x;
+                mTouchDownY = event.getY();
+                mDragging = false;
+                setPressed(true);
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!mDragging) {
+                    float dx = Math.abs(x - mTouchDownX);
+                    float dy = Math.abs(event.getY() - mTouchDownY);
+                    // leave a vertical move to a scrolling parent
+                    if (dx <= mTouchSlop || dx <= dy) {
+                        return true;
+                    }
+                    mDragging = true;
+                    if (null != getParent()) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                setProgressFromTouch(x);
+                return true;
+            case MotionEvent.ACTION_UP:
+                setProgressFromTouch(x);
+                setPressed(false);
+                mDragging = false;
+                performClick();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                setPressed(false);
+                mDragging = false;
+                return true;
             default:
                 break;
         }
         return super.onTouchEvent(event);
     }
 
+    @Override
+    public boolean performClick() {
+        // the click listeners and accessibility services see the end of a drag as a click
+        return super.performClick();
+    }
+
+    /**
+     * Set the progress at the touched x coordinate.
+     *
+     * @param x the x coordinate relative to the view
+     */
+    private void setProgressFromTouch(float x) {
+        long progress = coord2Progress(x - mViewWidth / 2);
+        if (progress != mTrack.getProgress()) {
+            setProgress(progress, false, true);
+        }
+    }
+
     /**
      * Do something init.
      *
@@ -162,23 +304,88 @@ public class SpaceProgressView extends View {
      * @param height height
      */
     private void initViewSize(int width, int height) {
-        if (width <= 0 || height <= 0) {
+        if (!mTrack.setSize(width, height)) {
             return;
         }
 
-        mProgressLength = width - 100;
+        updateCapPaths();
+        updateMarkerCoords();
+        applyProgress(mTrack.getProgress(), false, false);
+    }
+
+    /**
+     * Build the rounded ends of the track, the segments at the min or max progress draw
+     * them instead of rounding their own corners.
+     */
+    private void updateCapPaths() {
+        Rect fillRect = mTrack.getFillRect();
+        int halfLength = mTrack.getLength() / 2;
+        int capWidth = Math.min(mProgressCorner, halfLength);
+        mStartCapRight = -halfLength + capWidth;
+        mEndCapLeft = halfLength - capWidth;
 
-        mProgressBackgroundRect.top = -mProgressHeight;
-        mProgressBackgroundRect.bottom = -mProgressBackgroundRect.top;
-        mProgressBackgroundRect.left = -mProgressLength / 2;
-        mProgressBackgroundRect.right = mProgressLength / 2;
+        mStartCapPath.rewind();
+        mCapRect.set(-halfLength, fillRect.top, mStartCapRight, fillRect.bottom);
+        mStartCapPath.addRoundRect(mCapRect, mStartCornerRadii, Path.Direction.CW);
+        mEndCapPath.rewind();
+        mCapRect.set(mEndCapLeft, fillRect.top, halfLength, fillRect.bottom);
+        mEndCapPath.addRoundRect(mCapRect, mEndCornerRadii, Path.Direction.CW);
+    }
+
+    /**
+     * Recompute the coordinates of all progress segments and spaces. They only depend on
+     * the view size, the min/max progress and the lists, so this is not done in onDraw.
+     */
+    private void updateMarkerCoords() {
+        SpaceProgressConfig.Geometry geometry = null == mBoundConfig ? null : mBoundConfig.getGeometry(mTrack);
+        if (null != geometry) {
+            mProgressStartCoords = geometry.mProgressStartCoords;
+            mProgressEndCoords = geometry.mProgressEndCoords;
+            mSharedCoords = true;
+            mSpaceLayer.setCoords(geometry.mProgressSpaceCoords, geometry.mProgressSpaceIndex);
+            mSpaceLayer.updateGeneratedMargin(mTrack);
+            return;
+        }
+        if (mSharedCoords) {
+            // never write into the coordinates shared with other views
+            mProgressStartCoords = new int[mProgressCount];
+            mProgressEndCoords = new int[mProgressCount];
+            mSharedCoords = false;
+        }
+        mProgressStartCoords = obtainArray(mProgressStartCoords, mProgressCount);
+        mProgressEndCoords = obtainArray(mProgressEndCoords, mProgressCount);
+        computeSegmentCoords(mTrack, mProgressValues, mProgressCount, mProgressStartCoords, mProgressEndCoords);
+        mSpaceLayer.updateCoords(mTrack);
+    }
 
-        mProgressRect.top = -mProgressHeight;
-        mProgressRect.bottom = -mProgressRect.top;
-        mProgressRect.left = -mProgressLength / 2;
-        mProgressRect.right = -mProgressLength / 2;
+    /**
+     * Compute the coordinates of the segments, every segment ends at its progress and
+     * starts one unit before.
+     *
+     * @param track       the track
+     * @param values      the progress value of every segment
+     * @param count       the count of segments
+     * @param startCoords the array to receive the start coordinates
+     * @param endCoords   the array to receive the end coordinates
+     */
+    static void computeSegmentCoords(ProgressTrack track, long[] values, int count,
+                                     int[] startCoords, int[] endCoords) {
+        for (int i = 0; i < count; i++) {
+            long progress = values[i];
+            startCoords[i] = (int) track.progress2Coord(progress - 1);
+            endCoords[i] = (int) track.progress2Coord(progress);
+        }
+    }
 
-        setProgress(mCurrProgress);
+    /**
+     * Return an array which can hold the given count of values.
+     *
+     * @param array the current array
+     * @param size  the count of values
+     * @return the array to use
+     */
+    private static int[] obtainArray(int[] array, int size) {
+        return array.length >= size ? array : new int[size];
     }
 
     /**
@@ -188,9 +395,7 @@ public class SpaceProgressView extends View {
      */
     private void drawProgressBackground(Canvas canvas) {
         canvas.save();
-        mProgressBackgroundDrawable.setBounds(mProgressBackgroundRect);
-        mProgressBackgroundDrawable.setCornerRadius(mProgressCorner);
-        mProgressBackgroundDrawable.draw(canvas);
+        mTrack.drawBackground(canvas);
         canvas.restore();
     }
 
@@ -201,65 +406,177 @@ public class SpaceProgressView extends View {
      */
     private void drawProgress(Canvas canvas) {
         canvas.save();
-        if (mProgressList == null || mProgressList.isEmpty()) {
-            mProgressDrawable.setBounds(mProgressRect);
-            mProgressDrawable.setCornerRadius(mProgressCorner);
-            mProgressDrawable.draw(canvas);
-        } else {
-            for (Progress progress : mProgressList) {
-                int preX = (int) progress2Coord(progress.progress - 1);
-                int x = (int) progress2Coord(progress.progress);
-                Rect rect = new Rect(preX,
-                        mProgressRect.top,
-                        x,
-                        mProgressRect.bottom);
-
-                mProgressDrawable.setBounds(rect);
-                if (progress.progress == mMinProgress + 1) {
-                    mProgressDrawable.setCornerRadii(new float[]{mProgressCorner, mProgressCorner, 0, 0, 0, 0, mProgressCorner, mProgressCorner});
-                } else if (progress.progress == mMaxProgress) {
-                    mProgressDrawable.setCornerRadii(new float[]{0, 0, mProgressCorner, mProgressCorner, mProgressCorner, mProgressCorner, 0, 0});
-                } else {
-                    mProgressDrawable.setCornerRadius(0);
-                }
-
-                if (progress.progress < mCurrProgress) {
-                    mProgressDrawable.setColor(progress.progressPreColor);
-                } else if (progress.progress == mCurrProgress) {
-                    mProgressDrawable.setColor(progress.progressCurrColor);
+        if (mProgressCount == 0 && null != mProgressInterval) {
+            drawGeneratedProgress(canvas);
+        } else if (mProgressCount == 0) {
+            mTrack.drawFill(canvas);
+        } else if (canvas.getClipBounds(mClipRect)) {
+            // The coordinates are ascending, so the segments inside the clip are found
+            // with a binary search. Adjacent segments with the same color are drawn as one
+            // run, so the cost depends on the count of color changes instead of segments.
+            int first = lowerBound(mProgressEndCoords, mProgressCount, mClipRect.left);
+            int end = lowerBound(mProgressStartCoords, mProgressCount, mClipRect.right);
+            int runStart = first;
+            int runColor = first < end ? getSegmentColor(first) : 0;
+            for (int i = first + 1; i <= end; i++) {
+                if (i < end) {
+                    int color = getSegmentColor(i);
+                    if (color == runColor && mProgressStartCoords[i] == mProgressEndCoords[i - 1]) {
+                        continue;
+                    }
+                    drawSegmentRun(canvas, runStart, i - 1, runColor);
+                    runStart = i;
+                    runColor = color;
                 } else {
-                    mProgressDrawable.setColor(progress.progressNextColor);
+                    drawSegmentRun(canvas, runStart, i - 1, runColor);
                 }
-                mProgressDrawable.draw(canvas);
             }
         }
         canvas.restore();
     }
 
     /**
-     * Draw the progress space.
+     * Draw the segments from first to last with one color.
      *
      * @param canvas Canvas
+     * @param first  the index of the first segment
+     * @param last   the index of the last segment
+     * @param color  the color of the segments
      */
-    private void drawProgressSpace(Canvas canvas) {
-        if (mProgressSpaceList == null || mProgressSpaceList.isEmpty()) {
-            return;
+    private void drawSegmentRun(Canvas canvas, int first, int last, int color) {
+        drawSegmentRun(canvas, mProgressStartCoords[first], mProgressEndCoords[last],
+                mProgressValues[first] == mTrack.getMinProgress() + 1,
+                mProgressValues[last] == mTrack.getMaxProgress(), color);
+    }
+
+    /**
+     * Draw a run of segments with one color. The ends of the track are the cached cap
+     * paths and the rest is a plain rect.
+     *
+     * @param canvas     Canvas
+     * @param startCoord the start coordinate of the run
+     * @param endCoord   the end coordinate of the run
+     * @param start      true if the run starts at the min progress
+     * @param end        true if the run ends at the max progress
+     * @param color      the color of the segments
+     */
+    private void drawSegmentRun(Canvas canvas, int startCoord, int endCoord,
+                                boolean start, boolean end, int color) {
+        Rect fillRect = mTrack.getFillRect();
+        if (mSegmentPaint.getColor() != color) {
+            mSegmentPaint.setColor(color);
         }
-        canvas.save();
+        int left = startCoord;
+        int right = endCoord;
+        // a run shorter than its caps only shows the part of them inside the run
+        boolean clip = (start && left + mProgressCorner > right) || (end && right - mProgressCorner < left);
+        if (clip) {
+            canvas.save();
+            canvas.clipRect(left, fillRect.top, right, fillRect.bottom);
+        }
+        if (start) {
+            canvas.drawPath(mStartCapPath, mSegmentPaint);
+            left = Math.max(left, mStartCapRight);
+        }
+        if (end) {
+            canvas.drawPath(mEndCapPath, mSegmentPaint);
+            right = Math.min(right, mEndCapLeft);
+        }
+        if (left < right) {
+            canvas.drawRect(left, fillRect.top, right, fillRect.bottom, mSegmentPaint);
+        }
+        if (clip) {
+            canvas.restore();
+        }
+    }
+
+    /**
+     * Return the color of the segment for the current progress.
+     *
+     * @param index the index of the segment
+     * @return the color
+     */
+    private int getSegmentColor(int index) {
+        long progress = mProgressValues[index];
+        long currProgress = mTrack.getProgress();
+        if (progress < currProgress) {
+            return mProgressPreColors[index];
+        } else if (progress == currProgress) {
+            return mProgressCurrColors[index];
+        } else {
+            return mProgressNextColors[index];
+        }
+    }
 
-        for (ProgressSpace progressSpace : mProgressSpaceList) {
-            if (progressSpace.progress == mMaxProgress) {
+    /**
+     * Draw the generated segments inside the visible clip, every segment ends at its
+     * progress and starts one step before. Segments ending at the same pixel are drawn
+     * once, and adjacent segments with the same color are drawn as one run.
+     *
+     * @param canvas Canvas
+     */
+    private void drawGeneratedProgress(Canvas canvas) {
+        ProgressTrack track = mTrack;
+        if (!track.updateVisibleRange(canvas, 0)) {
+            return;
+        }
+        MarkerInterval interval = mProgressInterval;
+        Progress segment = mGeneratedProgress;
+        long step = interval.getStep();
+        long minProgress = track.getMinProgress();
+        long maxProgress = track.getMaxProgress();
+        long currProgress = track.getProgress();
+        int minCoord = -track.getLength() / 2;
+        int maxCoord = track.getLength() / 2;
+        boolean inRun = false;
+        boolean runStart = false;
+        int runStartCoord = 0;
+        int runEndCoord = 0;
+        int runColor = 0;
+        for (long i = interval.ceilIndex(track.getVisibleMinProgress()),
+             last = Math.min(interval.ceilIndex(track.getVisibleMaxProgress()), interval.getCount() - 1);
+             i <= last; i++) {
+            long progress = interval.progressAt(i);
+            int endCoord = Math.min(maxCoord, (int) track.progress2Coord(progress));
+            if (inRun && endCoord == runEndCoord) {
+                i = track.nextPixelIndex(interval, i, endCoord);
                 continue;
             }
-            int x = (int) progress2Coord(progressSpace.progress);
-            Rect rect = new Rect(x - progressSpace.spaceWidth / 2,
-                    mProgressRect.top,
-                    x + progressSpace.spaceWidth / 2,
-                    mProgressRect.bottom);
-
-            mProgressPaint.setColor(progressSpace.spaceColor);
-            canvas.drawRect(rect, mProgressPaint);
+            long startProgress = progress < Long.MIN_VALUE + step ? Long.MIN_VALUE : progress - step;
+            int startCoord = Math.max(minCoord, (int) track.progress2Coord(startProgress));
+            segment.progress = progress;
+            mProgressStyle.onStyle(segment, i);
+            int color = progress < currProgress ? segment.progressPreColor
+                    : (progress == currProgress ? segment.progressCurrColor : segment.progressNextColor);
+            if (inRun && (color != runColor || startCoord != runEndCoord)) {
+                drawSegmentRun(canvas, runStartCoord, runEndCoord, runStart, false, runColor);
+                inRun = false;
+            }
+            if (!inRun) {
+                inRun = true;
+                runStart = startProgress <= minProgress;
+                runStartCoord = startCoord;
+                runColor = color;
+            }
+            runEndCoord = endCoord;
+            if (progress >= maxProgress) {
+                drawSegmentRun(canvas, runStartCoord, runEndCoord, runStart, true, runColor);
+                return;
+            }
         }
+        if (inRun) {
+            drawSegmentRun(canvas, runStartCoord, runEndCoord, runStart, false, runColor);
+        }
+    }
+
+    /**
+     * Draw the progress space.
+     *
+     * @param canvas Canvas
+     */
+    private void drawProgressSpace(Canvas canvas) {
+        canvas.save();
+        mSpaceLayer.draw(canvas, mTrack, mProgressPaint, mTrack.getMaxProgress());
         canvas.restore();
     }
 
@@ -269,32 +586,12 @@ public class SpaceProgressView extends View {
      * @param anim     true show anim, false not show anim
      * @param progress progress
      */
-    private void toDestProgress(boolean anim, int progress) {
-        if (anim && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
-            float startCoord = checkCoord(progress2Coord(mCurrProgress));
-            float stopCoord = checkCoord(progress2Coord(progress));
-            mCurrProgress = progress;
-            if (null == mToDestValueAnimator) {
-                mToDestValueAnimator = new ValueAnimator();
-                mToDestValueAnimator.setDuration(400);
-                mToDestValueAnimator.setInterpolator(new DecelerateInterpolator());
-                mToDestValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-                    @Override
-                    public void onAnimationUpdate(ValueAnimator animation) {
-                        float coord = (Float) animation.getAnimatedValue();
-                        moveToPoint(coord);
-                    }
-                });
-            } else {
-                mToDestValueAnimator.cancel();
-            }
-            mToDestValueAnimator.setFloatValues(startCoord, stopCoord);
-            mToDestValueAnimator.start();
-        } else {
-            mCurrProgress = progress;
-            float stopCoord = checkCoord(progress2Coord(progress));
-            moveToPoint(stopCoord);
+    private void toDestProgress(boolean anim, long progress) {
+        if (mTrack.getProgress() != progress && (mProgressCount > 0 || null != mProgressInterval)) {
+            // The segment colors depend on the current progress.
+            invalidate();
         }
+        mAnimator.moveTo(progress, anim);
     }
 
     /**
@@ -303,32 +600,20 @@ public class SpaceProgressView extends View {
      * @param coord the x or y coordinate of thumb
      */
     private void moveToPoint(float coord) {
-        float halfLength = mProgressLength / 2;
-        if (coord > halfLength) {
-            coord = halfLength;
-            mCurrProgress = mMaxProgress;
-        } else if (coord < -halfLength) {
-            coord = -halfLength;
-            mCurrProgress = mMinProgress;
-        }
-        mProgressRect.right = (int) coord;
-        invalidate();
-    }
-
-    /**
-     * Check the coordinate
-     *
-     * @param coord coordinate
-     * @return the new coordinate
-     */
-    private float checkCoord(float coord) {
-        float halfLength = mProgressLength / 2;
-        if (coord > halfLength) {
-            return halfLength;
-        } else if (coord < -halfLength) {
-            return -halfLength;
+        Rect fillRect = mTrack.getFillRect();
+        int lastRight = fillRect.right;
+        if (mTrack.moveFill(coord)) {
+            invalidate();
+        } else if (mProgressCount == 0 && null == mProgressInterval) {
+            // Only redraw the area the fill end moved across, the segments do not
+            // depend on the coordinate and need no redraw at all.
+            mDirtyRect.set(Math.min(lastRight, fillRect.right) - mProgressCorner - 1,
+                    fillRect.top,
+                    Math.max(lastRight, fillRect.right) + mProgressCorner + 1,
+                    fillRect.bottom);
+            mDirtyRect.offset(mViewWidth / 2, mViewHeight / 2);
+            invalidate(mDirtyRect);
         }
-        return coord;
     }
 
     /**
@@ -337,9 +622,8 @@ public class SpaceProgressView extends View {
      * @param progress progress value
      * @return x or y coordinate
      */
-    private float progress2Coord(int progress) {
-        return (float) mProgressLength * (progress - mMinProgress)
-                / (mMaxProgress - mMinProgress) - mProgressLength / 2f;
+    float progress2Coord(long progress) {
+        return mTrack.progress2Coord(progress);
     }
 
     /**
@@ -348,16 +632,73 @@ public class SpaceProgressView extends View {
      * @param coord x or y coordinate
      * @return progress value
      */
-    private int coord2Progress(float coord) {
-        if (coord > mProgressLength / 2) {
-            return mMaxProgress;
-        } else if (coord < -mProgressLength / 2) {
-            return mMinProgress;
+    long coord2Progress(float coord) {
+        if (coord > mTrack.getLength() / 2) {
+            return mTrack.getMaxProgress();
+        } else if (coord < -mTrack.getLength() / 2) {
+            return mTrack.getMinProgress();
+        } else if (mProgressCount > 0) {
+            return segmentProgress(coord);
+        } else if (null != mProgressInterval) {
+            MarkerInterval interval = mProgressInterval;
+            return interval.progressAt(Math.min(interval.ceilIndex(mTrack.trackProgress(coord)),
+                    interval.getCount() - 1));
         } else {
-            return Math.round((coord + mProgressLength / 2f)
-                    * (mMaxProgress - mMinProgress) / mProgressLength)
-                    + mMinProgress;
+            return mTrack.trackProgress(coord);
+        }
+    }
+
+    int[] getProgressStartCoords() {
+        return mProgressStartCoords;
+    }
+
+    /**
+     * Return the count of segments and spaces, the generated ones count up to the track length.
+     *
+     * @return the count of markers
+     */
+    private int getMarkerCount() {
+        long count = mProgressCount + mSpaceLayer.getMarkerCount(mTrack);
+        count += mTrack.getGeneratedCount(mProgressInterval);
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return the progress of the segment at the coordinate, the segments may have any width.
+     * The end coordinates of the segments are ascending, so a binary search finds the first
+     * segment ending at or after the coordinate.
+     *
+     * @param coord x or y coordinate
+     * @return progress value
+     */
+    private long segmentProgress(float coord) {
+        if (coord < mProgressStartCoords[0]) {
+            return mTrack.getMinProgress();
+        }
+        int index = lowerBound(mProgressEndCoords, mProgressCount, coord);
+        return mProgressValues[Math.min(index, mProgressCount - 1)];
+    }
+
+    /**
+     * Return the index of the first ascending coordinate at or after the coordinate.
+     *
+     * @param coords the ascending coordinates
+     * @param size   the count of coordinates
+     * @param coord  x or y coordinate
+     * @return the index, size if there is none
+     */
+    private static int lowerBound(int[] coords, int size, float coord) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (coords[mid] < coord) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 
     /**
@@ -365,8 +706,8 @@ public class SpaceProgressView extends View {
      *
      * @return the current progress
      */
-    public int getProgress() {
-        return mCurrProgress;
+    public long getProgress() {
+        return mTrack.getProgress();
     }
 
     /**
@@ -374,8 +715,8 @@ public class SpaceProgressView extends View {
      *
      * @return the min progress
      */
-    public int getMinProgress() {
-        return mMinProgress;
+    public long getMinProgress() {
+        return mTrack.getMinProgress();
     }
 
     /**
@@ -383,8 +724,10 @@ public class SpaceProgressView extends View {
      *
      * @param minProgress the min progress
      */
-    public void setMinProgress(int minProgress) {
-        this.mMinProgress = minProgress;
+    public void setMinProgress(long minProgress) {
+        mBoundConfig = null;
+        mTrack.setRange(minProgress, mTrack.getMaxProgress());
+        updateMarkerCoords();
     }
 
     /**
@@ -392,8 +735,8 @@ public class SpaceProgressView extends View {
      *
      * @return the max progress
      */
-    public int getMaxProgress() {
-        return mMaxProgress;
+    public long getMaxProgress() {
+        return mTrack.getMaxProgress();
     }
 
     /**
@@ -401,8 +744,10 @@ public class SpaceProgressView extends View {
      *
      * @param maxProgress the max progress
      */
-    public void setMaxProgress(int maxProgress) {
-        this.mMaxProgress = maxProgress;
+    public void setMaxProgress(long maxProgress) {
+        mBoundConfig = null;
+        mTrack.setRange(mTrack.getMinProgress(), maxProgress);
+        updateMarkerCoords();
     }
 
     /**
@@ -410,7 +755,7 @@ public class SpaceProgressView extends View {
      *
      * @param progress progress
      */
-    public void setProgress(int progress) {
+    public void setProgress(long progress) {
         setProgress(progress, false, false);
     }
 
@@ -420,7 +765,7 @@ public class SpaceProgressView extends View {
      * @param progress progress
      * @param anim     true show anim, false not show anim
      */
-    public void setProgress(int progress, boolean anim) {
+    public void setProgress(long progress, boolean anim) {
         setProgress(progress, anim, false);
     }
 
@@ -431,40 +776,377 @@ public class SpaceProgressView extends View {
      * @param anim     true show anim, false not show anim
      * @param fromUser true by user, false not by user
      */
-    public void setProgress(int progress, boolean anim, boolean fromUser) {
-        if (progress <= mMinProgress) {
-            progress = mMinProgress;
-        } else if (progress >= mMaxProgress) {
-            progress = mMaxProgress;
+    public void setProgress(long progress, boolean anim, boolean fromUser) {
+        ProgressMetrics metrics = mMetrics;
+        if (null != metrics) {
+            metrics.onSetProgress();
         }
+        applyProgress(progress, anim, fromUser);
+    }
 
-        toDestProgress(anim, progress);
+    /**
+     * Apply the progress.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     * @param fromUser true by user, false not by user
+     */
+    private void applyProgress(long progress, boolean anim, boolean fromUser) {
+        toDestProgress(anim, mTrack.clampProgress(progress));
         if (null != mOnProgressListener) {
-            if (mLastProgress != mCurrProgress) {
+            if (mLastProgress != mTrack.getProgress()) {
                 mIsFromUser = fromUser;
+                ProgressMetrics metrics = mMetrics;
+                if (null != metrics) {
+                    metrics.onListenerDispatch();
+                }
                 mOnProgressListener.onChanged(this, mIsFromUser, true);
                 mIsFromUser = false;
             }
-            mLastProgress = mCurrProgress;
+            mLastProgress = mTrack.getProgress();
+        }
+    }
+
+    /**
+     * Post a progress from any thread without an allocation per call. Only the latest
+     * posted value is kept, it is applied once on the next frame.
+     *
+     * @param progress progress
+     */
+    public void postProgress(long progress) {
+        postProgress(progress, false);
+    }
+
+    /**
+     * Post a progress from any thread without an allocation per call. Only the latest
+     * posted value is kept, it is applied once on the next frame.
+     *
+     * @param progress progress
+     * @param anim     true show anim, false not show anim
+     */
+    public void postProgress(long progress, boolean anim) {
+        ProgressMetrics metrics = mMetrics;
+        if (null != metrics) {
+            metrics.onSetProgress();
+        }
+        if (mProgressCoalescer.post(progress, anim, false) && null != metrics) {
+            metrics.onCoalesced();
         }
     }
 
     /**
-     * Set the list of progress.
+     * Set the list of progress. The list is copied and sorted by progress, set it again after
+     * changing it.
      *
      * @param list list
      */
     public void setProgressList(List<Progress> list) {
-        this.mProgressList = list;
+        int size = null == list ? 0 : list.size();
+        Progress[] items = new Progress[size];
+        if (size > 0) {
+            list.toArray(items);
+            Arrays.sort(items, PROGRESS_ORDER);
+        }
+        long[] progress = new long[size];
+        int[] preColors = new int[size];
+        int[] currColors = new int[size];
+        int[] nextColors = new int[size];
+        for (int i = 0; i < size; i++) {
+            Progress item = items[i];
+            progress[i] = item.progress;
+            preColors[i] = item.progressPreColor;
+            currColors[i] = item.progressCurrColor;
+            nextColors[i] = item.progressNextColor;
+        }
+        setProgressArray(size, progress, preColors, currColors, nextColors);
+    }
+
+    /**
+     * Set the progress segments in bulk. The arrays are used directly without copying,
+     * the progress values must be in ascending order.
+     *
+     * @param count      the count of segments
+     * @param progress   the progress value of every segment
+     * @param preColors  the color of every segment before the current progress
+     * @param currColors the color of every segment at the current progress
+     * @param nextColors the color of every segment after the current progress
+     * @throws IllegalArgumentException if the progress values are not in ascending order
+     */
+    public void setProgressArray(int count, long[] progress, int[] preColors,
+                                 int[] currColors, int[] nextColors) {
+        checkArrayLength(count, progress.length);
+        checkAscending(count, progress);
+        checkArrayLength(count, preColors.length, currColors.length, nextColors.length);
+        mBoundConfig = null;
+        this.mProgressCount = count;
+        this.mProgressValues = progress;
+        this.mProgressPreColors = preColors;
+        this.mProgressCurrColors = currColors;
+        this.mProgressNextColors = nextColors;
+        updateMarkerCoords();
     }
 
     /**
-     * Set the list of progress space.
+     * Set the list of progress space. The list is copied, set it again after changing it.
      *
      * @param list list
      */
     public void setProgressSpaceList(List<ProgressSpace> list) {
-        this.mProgressSpaceList = list;
+        int size = null == list ? 0 : list.size();
+        long[] progress = new long[size];
+        int[] widths = new int[size];
+        int[] colors = new int[size];
+        for (int i = 0; i < size; i++) {
+            ProgressSpace item = list.get(i);
+            progress[i] = item.progress;
+            widths[i] = item.spaceWidth;
+            colors[i] = item.spaceColor;
+        }
+        setProgressSpaceArray(size, progress, widths, colors);
+    }
+
+    /**
+     * Set the progress spaces in bulk. The arrays are used directly without copying.
+     *
+     * @param count    the count of spaces
+     * @param progress the progress value of every space
+     * @param widths   the width of every space
+     * @param colors   the color of every space
+     */
+    public void setProgressSpaceArray(int count, long[] progress, int[] widths, int[] colors) {
+        checkArrayLength(count, progress.length);
+        checkArrayLength(count, widths.length, colors.length);
+        mBoundConfig = null;
+        mSpaceLayer.setSpaces(count, progress, widths, colors);
+        mSpaceLayer.updateCoords(mTrack);
+        invalidate();
+    }
+
+    /**
+     * Bind a row of a list, e.g. from {@code RecyclerView.Adapter#onBindViewHolder}. The config
+     * is used without copying, and the coordinates are shared with all the views bound to the
+     * same config at the same width. Binding the config which is already bound only changes
+     * the progress. The progress is set without animation, and the listener is not called.
+     *
+     * @param config   the range, segments and spaces
+     * @param progress progress
+     */
+    public void bind(SpaceProgressConfig config, long progress) {
+        if (mBoundConfig != config) {
+            mTrack.setRange(config.getMinProgress(), config.getMaxProgress());
+            mProgressCount = config.getProgressCount();
+            mProgressValues = config.getProgressValues();
+            mProgressPreColors = config.getProgressPreColors();
+            mProgressCurrColors = config.getProgressCurrColors();
+            mProgressNextColors = config.getProgressNextColors();
+            mSpaceLayer.setSpaces(config.getProgressSpaceCount(), config.getProgressSpaceValues(),
+                    config.getProgressSpaceWidths(), config.getProgressSpaceColors());
+            mBoundConfig = config;
+            updateMarkerCoords();
+            invalidate();
+        }
+        progress = mTrack.clampProgress(progress);
+        toDestProgress(false, progress);
+        mLastProgress = progress;
+    }
+
+    /**
+     * Unbind a row of a list, e.g. from {@code RecyclerView.Adapter#onViewRecycled}. The running
+     * animation is finished at once, the bound config is kept, so binding it again is cheap.
+     */
+    public void unbind() {
+        mAnimator.finish();
+    }
+
+    /**
+     * Check all the arrays can hold the given count of values.
+     *
+     * @param count   the count of values
+     * @param lengths the lengths of the arrays
+     */
+    static void checkArrayLength(int count, int... lengths) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count < 0: " + count);
+        }
+        for (int length : lengths) {
+            if (length < count) {
+                throw new IllegalArgumentException("array length " + length + " < count " + count);
+            }
+        }
+    }
+
+    /**
+     * Check the first count progress values are in ascending order, which the segment lookups
+     * rely on.
+     *
+     * @param count    the count of values
+     * @param progress the progress values
+     */
+    static void checkAscending(int count, long[] progress) {
+        for (int i = 1; i < count; i++) {
+            if (progress[i] < progress[i - 1]) {
+                throw new IllegalArgumentException("progress[" + i + "] " + progress[i]
+                        + " < progress[" + (i - 1) + "] " + progress[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Generate the progress segments at a regular interval instead of a list, e.g. one
+     * segment for every unit. Every segment ends at its progress and starts one step before.
+     * Only the segments inside the visible clip are styled and drawn, and nothing is stored
+     * per segment. A list set by {@link #setProgressArray} takes precedence.
+     *
+     * @param interval the progress of the segments, null to remove
+     * @param style    fill the colors of every segment
+     */
+    public void setProgressGenerator(MarkerInterval interval, MarkerInterval.Style<Progress> style) {
+        this.mProgressInterval = null == style ? null : interval;
+        this.mProgressStyle = style;
+        invalidate();
+    }
+
+    /**
+     * Generate the progress spaces at a regular interval instead of a list,
+     * see {@link #setProgressGenerator(MarkerInterval, MarkerInterval.Style)}. Every space
+     * which can be drawn is styled once whenever the size or the range changes to find the
+     * largest width, use {@link #setProgressSpaceGenerator(MarkerInterval, MarkerInterval.Style, int)}
+     * if it is known.
+     *
+     * @param interval the progress of the spaces, null to remove
+     * @param style    fill the width and color of every space
+     */
+    public void setProgressSpaceGenerator(MarkerInterval interval, MarkerInterval.Style<ProgressSpace> style) {
+        setProgressSpaceGenerator(interval, style, -1);
+    }
+
+    /**
+     * Generate the progress spaces at a regular interval instead of a list.
+     *
+     * @param interval the progress of the spaces, null to remove
+     * @param style    fill the width and color of every space
+     * @param maxWidth the largest width of the spaces, so the spaces reaching into the clip
+     *                 are drawn without styling all of them first, -1 if not known
+     */
+    public void setProgressSpaceGenerator(MarkerInterval interval, final MarkerInterval.Style<ProgressSpace> style,
+                                          int maxWidth) {
+        mSpaceLayer.setGenerator(interval, null == style ? null : new SpaceLayer.Styler() {
+            @Override
+            public void onStyle(SpaceLayer layer, long progress, long index) {
+                ProgressSpace progressSpace = mGeneratedProgressSpace;
+                progressSpace.progress = progress;
+                style.onStyle(progressSpace, index);
+                layer.setStyle(progressSpace.spaceWidth, progressSpace.spaceColor);
+            }
+        }, maxWidth);
+        mSpaceLayer.updateGeneratedMargin(mTrack);
+        invalidate();
+    }
+
+    /**
+     * Set the scale which maps the progress to the track, e.g. {@link ProgressScale#log()}
+     * or {@link ProgressScale#breakpoints(double...)}. It is compiled into a lookup table
+     * whenever the size or the min/max progress changes.
+     *
+     * @param scale the scale, null for {@link ProgressScale#LINEAR}
+     */
+    public void setProgressScale(ProgressScale scale) {
+        mTrack.setScale(scale);
+        updateMarkerCoords();
+        // every marker moved, not only the thumb
+        invalidate();
+        mAnimator.moveTo(mTrack.getProgress(), false);
+    }
+
+    /**
+     * Call this after changing the values of the arrays which have been set,
+     * the coordinates are cached and will not be recomputed otherwise.
+     */
+    public void notifyMarkersChanged() {
+        updateMarkerCoords();
+        invalidate();
+    }
+
+    /**
+     * Set the physics of the progress animation, e.g. {@link ProgressMotion#spring(float, float)}.
+     * The default decelerates to the target in 400 ms.
+     *
+     * @param motion the motion, only used by this view
+     */
+    public void setProgressMotion(ProgressMotion motion) {
+        mAnimator.setMotion(motion);
+    }
+
+    /**
+     * Set the engine which steps the progress animation and applies the posted progress, the
+     * default engine steps all the views on the main thread from one frame callback.
+     *
+     * @param engine the engine
+     */
+    public void setAnimationEngine(ProgressAnimationEngine engine) {
+        mAnimator.setEngine(engine);
+        mProgressCoalescer.setEngine(engine);
+    }
+
+    /**
+     * Set whether to draw on a hardware layer while the progress animates.
+     *
+     * @param mode {@link AnimationLayer#MODE_AUTO}, {@link AnimationLayer#MODE_ALWAYS}
+     *             or {@link AnimationLayer#MODE_NEVER}
+     */
+    public void setAnimationLayerMode(int mode) {
+        mAnimator.setLayerMode(mode);
+    }
+
+    /**
+     * Set the count of markers from which {@link AnimationLayer#MODE_AUTO} promotes the view.
+     *
+     * @param markerThreshold the count of markers
+     */
+    public void setAnimationLayerMarkerThreshold(int markerThreshold) {
+        mAnimator.setLayerMarkerThreshold(markerThreshold);
+    }
+
+    /**
+     * Set whether to record the frame and update counters, see {@link ProgressMetrics}.
+     * Nothing is recorded while disabled.
+     *
+     * @param enabled true to record
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && null == mMetrics) {
+            mMetrics = new ProgressMetrics();
+        } else if (!enabled) {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * Get the recorded counters.
+     *
+     * @return the counters, null if not enabled
+     */
+    public ProgressMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Set whether the progress follows a touch. A clickable view follows the touch too, the
+     * drag only takes the touch from a scrolling parent after a mostly horizontal move.
+     *
+     * @param seekable true to follow the touch
+     */
+    public void setSeekable(boolean seekable) {
+        mSeekable = seekable;
+    }
+
+    /**
+     * Return whether the progress follows a touch without the view being clickable.
+     *
+     * @return true if seekable
+     */
+    public boolean isSeekable() {
+        return mSeekable;
     }
 
     /**
@@ -482,11 +1164,11 @@ public class SpaceProgressView extends View {
     }
 
     public static class ProgressSpace {
-        public int progress;
+        public long progress;
         public int spaceWidth;
         public int spaceColor;
 
-        public ProgressSpace(int progress, int spaceWidth, int spaceColor) {
+        public ProgressSpace(long progress, int spaceWidth, int spaceColor) {
             this.progress = progress;
             this.spaceWidth = spaceWidth;
             this.spaceColor = spaceColor;
@@ -494,12 +1176,12 @@ public class SpaceProgressView extends View {
     }
 
     public static class Progress {
-        public int progress;
+        public long progress;
         public int progressPreColor;
         public int progressCurrColor;
         public int progressNextColor;
 
-        public Progress(int progress, int progressPreColor, int progressCurrColor, int progressNextColor) {
+        public Progress(long progress, int progressPreColor, int progressCurrColor, int progressNextColor) {
             this.progress = progress;
             this.progressPreColor = progressPreColor;
             this.progressCurrColor = progressCurrColor;
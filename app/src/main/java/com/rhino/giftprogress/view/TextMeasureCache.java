@@ -0,0 +1,118 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A LRU cache of measured text widths, keyed by the text and the paint configuration
+ * which affects the width. Only use it from the UI thread.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class TextMeasureCache {
+
+    private static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int mMaxSize;
+    private final LinkedHashMap<Key, Float> mCache;
+    private final Key mLookupKey = new Key();
+    private int mHitCount;
+    private int mMissCount;
+
+    TextMeasureCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    TextMeasureCache(int maxSize) {
+        this.mMaxSize = maxSize;
+        this.mCache = new LinkedHashMap<Key, Float>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Float> eldest) {
+                return size() > mMaxSize;
+            }
+        };
+    }
+
+    /**
+     * Return the width of the text measured by the paint.
+     *
+     * @param paint the paint
+     * @param text  the text
+     * @return the width
+     */
+    float measureText(Paint paint, String text) {
+        mLookupKey.set(text, paint);
+        Float width = mCache.get(mLookupKey);
+        if (null != width) {
+            mHitCount++;
+            return width;
+        }
+        mMissCount++;
+        float measured = paint.measureText(text);
+        Key key = new Key();
+        key.set(text, paint);
+        mCache.put(key, measured);
+        return measured;
+    }
+
+    /**
+     * Remove all the cached widths.
+     */
+    void clear() {
+        mCache.clear();
+    }
+
+    int getHitCount() {
+        return mHitCount;
+    }
+
+    int getMissCount() {
+        return mMissCount;
+    }
+
+    private static class Key {
+        String text;
+        float textSize;
+        float textScaleX;
+        Typeface typeface;
+        int flags;
+
+        void set(String text, Paint paint) {
+            this.text = text;
+            this.textSize = paint.getTextSize();
+            this.textScaleX = paint.getTextScaleX();
+            this.typeface = paint.getTypeface();
+            this.flags = paint.getFlags();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return textSize == key.textSize
+                    && textScaleX == key.textScaleX
+                    && flags == key.flags
+                    && typeface == key.typeface
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + (null != typeface ? typeface.hashCode() : 0);
+            result = 31 * result + flags;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.rhino.giftprogress.view;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the hardware layer promotion during animations.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class AnimationLayerTest {
+
+    private View mView;
+    private AnimationLayer mLayer;
+
+    @Before
+    public void setUp() {
+        mView = new View(RuntimeEnvironment.application);
+        mLayer = new AnimationLayer();
+    }
+
+    @Test
+    public void always_promotesAndDropsOnEnd() {
+        mLayer.setMode(AnimationLayer.MODE_ALWAYS);
+        assertTrue(mLayer.begin(mView, 0));
+        assertEquals(View.LAYER_TYPE_HARDWARE, mView.getLayerType());
+        mLayer.end(mView);
+        assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType());
+        assertFalse(mLayer.isPromoted());
+    }
+
+    @Test
+    public void never_doesNotPromote() {
+        mLayer.setMode(AnimationLayer.MODE_NEVER);
+        assertFalse(mLayer.begin(mView, 100000));
+        assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType());
+    }
+
+    @Test
+    public void auto_needsHardwareAccelerationAndMarkers() {
+        // the JVM view is not hardware accelerated
+        assertFalse(mLayer.begin(mView, 100000));
+        assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType());
+    }
+
+    @Test
+    public void keepsTheLayerOfTheApp() {
+        mView.setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        mLayer.setMode(AnimationLayer.MODE_ALWAYS);
+        assertFalse(mLayer.begin(mView, 0));
+        mLayer.end(mView);
+        assertEquals(View.LAYER_TYPE_SOFTWARE, mView.getLayerType());
+    }
+}
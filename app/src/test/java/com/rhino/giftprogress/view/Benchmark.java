@@ -0,0 +1,124 @@
+package com.rhino.giftprogress.view;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A minimal benchmark harness for JVM unit tests. Every measurement reports the time,
+ * allocated bytes and draw operations per op, the results are written as JSON into the
+ * directory given by the system property "benchmark.output".
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+final class Benchmark {
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURE_ITERATIONS = 200;
+
+    private final String mName;
+    private final List<String> mResults = new ArrayList<>();
+
+    Benchmark(String name) {
+        this.mName = name;
+    }
+
+    /**
+     * Return true if benchmarks are enabled, they are skipped in the normal test run.
+     */
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("benchmark.enabled"));
+    }
+
+    /**
+     * Run the body and record the result.
+     *
+     * @param name   the name of the benchmark
+     * @param params the count of markers, or any other size parameter
+     * @param canvas the canvas the body draws into, null if it does not draw
+     * @param body   the body
+     */
+    void measure(String name, int params, CountingCanvas canvas, Runnable body) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            body.run();
+        }
+        if (null != canvas) {
+            canvas.reset();
+        }
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            body.run();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        long drawCount = null == canvas ? 0 : canvas.getDrawCount();
+
+        mResults.add(String.format(Locale.US,
+                "{\"name\":\"%s\",\"params\":%d,\"nsPerOp\":%.1f,\"bytesPerOp\":%.1f,\"drawOpsPerOp\":%.1f}",
+                name, params,
+                (double) nanos / MEASURE_ITERATIONS,
+                startBytes < 0 ? -1d : (double) bytes / MEASURE_ITERATIONS,
+                (double) drawCount / MEASURE_ITERATIONS));
+    }
+
+    /**
+     * Record the throughput of a body which has been run outside of {@link #measure}, e.g.
+     * on a pool of threads.
+     *
+     * @param name    the name of the benchmark
+     * @param params  the count of threads, or any other size parameter
+     * @param opCount the count of ops done
+     * @param nanos   the wall time of all the ops
+     */
+    void recordThroughput(String name, int params, long opCount, long nanos) {
+        mResults.add(String.format(Locale.US,
+                "{\"name\":\"%s\",\"params\":%d,\"opsPerSecond\":%.1f}",
+                name, params, opCount * 1e9 / nanos));
+    }
+
+    /**
+     * Write all the results to {@code <benchmark.output>/<name>.json}.
+     */
+    void write() throws IOException {
+        if (mResults.isEmpty()) {
+            return;
+        }
+        File dir = new File(System.getProperty("benchmark.output", "build/benchmark"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(dir, mName + ".json")), "UTF-8");
+        try {
+            writer.write("[\n");
+            for (int i = 0; i < mResults.size(); i++) {
+                writer.write("  ");
+                writer.write(mResults.get(i));
+                writer.write(i < mResults.size() - 1 ? ",\n" : "\n");
+            }
+            writer.write("]\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Return the bytes allocated by the current thread, or -1 if not supported.
+     */
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
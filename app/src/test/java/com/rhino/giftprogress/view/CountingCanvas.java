@@ -0,0 +1,149 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * A Canvas which draws nothing and only counts the draw operations. It keeps track of
+ * the translation, so the clip bounds seen by the views match a real canvas.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+class CountingCanvas extends Canvas {
+
+    private final int mWidth;
+    private final int mHeight;
+    private final Rect mClip;
+    private float[] mSaveStack = new float[16];
+    private int mSaveCount;
+    private float mTranslateX;
+    private float mTranslateY;
+    private long mDrawCount;
+
+    CountingCanvas(int width, int height) {
+        this.mWidth = width;
+        this.mHeight = height;
+        this.mClip = new Rect(0, 0, width, height);
+    }
+
+    /**
+     * Set the clip, e.g. the part of the view visible in a scrolling container.
+     */
+    void setClip(int left, int top, int right, int bottom) {
+        mClip.set(left, top, right, bottom);
+    }
+
+    long getDrawCount() {
+        return mDrawCount;
+    }
+
+    void reset() {
+        mDrawCount = 0;
+    }
+
+    @Override
+    public int getWidth() {
+        return mWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return mHeight;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    @Override
+    public int save() {
+        if (mSaveStack.length < mSaveCount * 2 + 2) {
+            float[] stack = new float[mSaveStack.length * 2];
+            System.arraycopy(mSaveStack, 0, stack, 0, mSaveStack.length);
+            mSaveStack = stack;
+        }
+        mSaveStack[mSaveCount * 2] = mTranslateX;
+        mSaveStack[mSaveCount * 2 + 1] = mTranslateY;
+        return ++mSaveCount;
+    }
+
+    @Override
+    public void restore() {
+        if (mSaveCount > 0) {
+            mSaveCount--;
+            mTranslateX = mSaveStack[mSaveCount * 2];
+            mTranslateY = mSaveStack[mSaveCount * 2 + 1];
+        }
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        while (mSaveCount >= saveCount && mSaveCount > 0) {
+            restore();
+        }
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        mTranslateX += dx;
+        mTranslateY += dy;
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(mClip);
+        bounds.offset(-(int) mTranslateX, -(int) mTranslateY);
+        return !bounds.isEmpty();
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        mDrawCount++;
+    }
+}
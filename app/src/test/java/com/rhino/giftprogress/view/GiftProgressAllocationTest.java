@@ -0,0 +1,64 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that drawing {@link GiftProgressView} does not allocate once it is warmed up.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GiftProgressAllocationTest {
+
+    private static final int MARKER_COUNT = 100;
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 180;
+    private static final int WARMUP_FRAMES = 50;
+    private static final int FRAMES = 200;
+    private static final int RUNS = 5;
+
+    @Test
+    public void draw_afterWarmUp_allocatesNothing() {
+        assertDrawAllocatesNothing(ProgressViewBenchmark.createGiftProgressView(MARKER_COUNT));
+    }
+
+    @Test
+    public void drawGenerated_afterWarmUp_allocatesNothing() {
+        assertDrawAllocatesNothing(ProgressViewBenchmark.createGeneratedGiftProgressView(MARKER_COUNT * 10));
+    }
+
+    /**
+     * Draw with {@link GiftProgressView#onDraw}, so only the drawing of the view is counted
+     * and not the framework code around it. The JIT may allocate once while it recompiles
+     * the drawing, so the fewest bytes of some runs are checked, an allocation per frame
+     * shows up in every run.
+     *
+     * @param view the measured view
+     */
+    private static void assertDrawAllocatesNothing(GiftProgressView view) {
+        Assume.assumeTrue(Benchmark.allocatedBytes() >= 0);
+        CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+        // the bytes counted by reading the counter itself
+        long overhead = -Benchmark.allocatedBytes() + Benchmark.allocatedBytes();
+        long minBytes = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long startBytes = Benchmark.allocatedBytes();
+            for (int i = 0; i < FRAMES; i++) {
+                view.onDraw(canvas);
+            }
+            minBytes = Math.min(minBytes, Benchmark.allocatedBytes() - startBytes - overhead);
+        }
+        assertEquals(0, minBytes);
+    }
+}
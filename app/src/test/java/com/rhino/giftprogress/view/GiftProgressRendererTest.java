@@ -0,0 +1,106 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the headless {@link GiftProgressRenderer}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GiftProgressRendererTest {
+
+    private static final int MARKER_COUNT = 100;
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 180;
+
+    @Test
+    public void draw_sameOpsAsView() {
+        GiftProgressView view = ProgressViewBenchmark.createGiftProgressView(MARKER_COUNT);
+        CountingCanvas viewCanvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+        view.draw(viewCanvas);
+
+        GiftProgressRenderer renderer = new GiftProgressRenderer.Builder().build();
+        CountingCanvas rendererCanvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+        renderer.draw(rendererCanvas, VIEW_WIDTH, VIEW_HEIGHT,
+                ProgressViewBenchmark.createGiftProgressConfig(MARKER_COUNT), view.getProgress());
+
+        assertEquals(viewCanvas.getDrawCount(), rendererCanvas.getDrawCount());
+    }
+
+    @Test
+    public void render_fromManyThreads() throws Exception {
+        final GiftProgressRenderer renderer = new GiftProgressRenderer.Builder().build();
+        final GiftProgressConfig config = ProgressViewBenchmark.createGiftProgressConfig(MARKER_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Bitmap>> tasks = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final int progress = i * MARKER_COUNT / 16;
+                tasks.add(new Callable<Bitmap>() {
+                    @Override
+                    public Bitmap call() {
+                        return renderer.render(config, progress, VIEW_WIDTH, VIEW_HEIGHT);
+                    }
+                });
+            }
+            for (Future<Bitmap> future : executor.invokeAll(tasks)) {
+                Bitmap bitmap = future.get();
+                assertEquals(VIEW_WIDTH, bitmap.getWidth());
+                assertEquals(VIEW_HEIGHT, bitmap.getHeight());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void render_drawableWithoutConstantState_isRejected() {
+        Drawable drawable = new Drawable() {
+            @Override
+            public void draw(Canvas canvas) {
+            }
+
+            @Override
+            public void setAlpha(int alpha) {
+            }
+
+            @Override
+            public void setColorFilter(ColorFilter colorFilter) {
+            }
+
+            @Override
+            public int getOpacity() {
+                return PixelFormat.TRANSLUCENT;
+            }
+        };
+        GiftProgressConfig config = new GiftProgressConfig.Builder()
+                .setRange(0, MARKER_COUNT)
+                .setTopDrawableList(Collections.singletonList(
+                        new GiftProgressView.TopDrawable(MARKER_COUNT / 2, drawable, 50, 50)))
+                .build();
+        new GiftProgressRenderer.Builder().build().draw(new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT),
+                VIEW_WIDTH, VIEW_HEIGHT, config, 0);
+    }
+}
@@ -0,0 +1,327 @@
+package com.rhino.giftprogress.view;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the region the progress views invalidate when the fill moves, it must cover the
+ * old and the new fill end and stay narrow for a small move.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class InvalidateRegionTest {
+
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 180;
+    private static final long MAX_PROGRESS = 1000;
+    private static final long START_PROGRESS = 200;
+    private static final long[] DELTAS = {1, 3, 10, 50, 100, 300, 600};
+    private static final long FRAME_NANOS = 16000000L;
+    /**
+     * The room left of and right of the moved distance for the thumb, its text and the
+     * rounded fill end.
+     */
+    private static final int GIFT_MARGIN = 2 * 64;
+    private static final int SPACE_MARGIN = 2 * 16;
+
+    private ManualFrameSource mFrameSource;
+
+    @Before
+    public void setUp() {
+        mFrameSource = new ManualFrameSource();
+    }
+
+    @Test
+    public void giftMoveToPoint_coversOldAndNewFillEnd() {
+        RecordingGiftProgressView view = new RecordingGiftProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        ProgressViewBenchmark.layout(view);
+        for (long delta : DELTAS) {
+            view.setProgress(START_PROGRESS);
+            view.mDirtyRegion.reset();
+            view.setProgress(START_PROGRESS + delta);
+
+            Rect dirty = view.mDirtyRegion.getPartialUnion();
+            assertFalse("delta " + delta, dirty.isEmpty());
+            int oldX = toViewX(view.progress2Coord(START_PROGRESS));
+            int newX = toViewX(view.progress2Coord(START_PROGRESS + delta));
+            assertTrue("delta " + delta, dirty.contains(oldX, VIEW_HEIGHT / 2));
+            assertTrue("delta " + delta, dirty.contains(newX, VIEW_HEIGHT / 2));
+            assertTrue("delta " + delta + " width " + dirty.width(),
+                    dirty.width() <= newX - oldX + GIFT_MARGIN);
+        }
+    }
+
+    @Test
+    public void giftAnimation_coversEveryFrame() {
+        RecordingGiftProgressView view = new RecordingGiftProgressView(RuntimeEnvironment.application);
+        view.setAnimationEngine(new ProgressAnimationEngine(mFrameSource));
+        view.setMaxProgress(MAX_PROGRESS);
+        ProgressViewBenchmark.layout(view);
+        view.setProgress(START_PROGRESS);
+        view.setProgress(MAX_PROGRESS - START_PROGRESS, true, false);
+
+        List<Rect> frames = runFrames(view.mDirtyRegion);
+        assertTrue(frames.size() > 1);
+        assertContinuous(frames,
+                toViewX(view.progress2Coord(START_PROGRESS)),
+                toViewX(view.progress2Coord(MAX_PROGRESS - START_PROGRESS)));
+    }
+
+    @Test
+    public void giftProgressChange_redrawsStaticLayerOnlyForMarkersAtProgress() {
+        RecordingGiftProgressView view = new RecordingGiftProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        List<GiftProgressView.TopDrawable> topDrawables = new ArrayList<>();
+        topDrawables.add(new GiftProgressView.TopDrawable(500, new ColorDrawable(0xFFFF0000), 20, 20));
+        view.setTopDrawableList(topDrawables);
+        List<GiftProgressView.ProgressText> texts = new ArrayList<>();
+        texts.add(new GiftProgressView.ProgressText(700, "700", 0xFF000000));
+        view.setProgressTextList(texts);
+        ProgressViewBenchmark.layout(view);
+        view.setProgress(START_PROGRESS);
+
+        assertFullInvalidates(view, 300, false);
+        assertFullInvalidates(view, 500, true);
+        assertFullInvalidates(view, 600, true);
+        assertFullInvalidates(view, 700, true);
+        assertFullInvalidates(view, 800, true);
+        assertFullInvalidates(view, 900, false);
+    }
+
+    @Test
+    public void giftProgressChange_generatedMarkerAtProgress_redrawsStaticLayer() {
+        RecordingGiftProgressView view = new RecordingGiftProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        view.setProgressTextGenerator(new MarkerInterval(100, MAX_PROGRESS, 100),
+                new MarkerInterval.Style<GiftProgressView.ProgressText>() {
+                    @Override
+                    public void onStyle(GiftProgressView.ProgressText marker, long index) {
+                        marker.textColor = 0xFF000000;
+                    }
+                });
+        ProgressViewBenchmark.layout(view);
+        view.setProgress(START_PROGRESS + 50);
+
+        assertFullInvalidates(view, START_PROGRESS + 60, false);
+        assertFullInvalidates(view, START_PROGRESS + 100, true);
+    }
+
+    @Test
+    public void spaceMoveToPoint_coversOldAndNewFillEnd() {
+        RecordingSpaceProgressView view = new RecordingSpaceProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        ProgressViewBenchmark.layout(view);
+        for (long delta : DELTAS) {
+            view.setProgress(START_PROGRESS);
+            view.mDirtyRegion.reset();
+            view.setProgress(START_PROGRESS + delta);
+
+            assertEquals("delta " + delta, 0, view.mDirtyRegion.mFullCount);
+            Rect dirty = view.mDirtyRegion.getPartialUnion();
+            int oldX = toViewX(view.progress2Coord(START_PROGRESS));
+            int newX = toViewX(view.progress2Coord(START_PROGRESS + delta));
+            assertTrue("delta " + delta, dirty.contains(oldX, VIEW_HEIGHT / 2));
+            assertTrue("delta " + delta, dirty.contains(newX, VIEW_HEIGHT / 2));
+            assertTrue("delta " + delta + " width " + dirty.width(),
+                    dirty.width() <= newX - oldX + SPACE_MARGIN);
+        }
+    }
+
+    @Test
+    public void spaceAnimation_coversEveryFrame() {
+        RecordingSpaceProgressView view = new RecordingSpaceProgressView(RuntimeEnvironment.application);
+        view.setAnimationEngine(new ProgressAnimationEngine(mFrameSource));
+        view.setMaxProgress(MAX_PROGRESS);
+        ProgressViewBenchmark.layout(view);
+        view.setProgress(START_PROGRESS);
+        view.setProgress(MAX_PROGRESS - START_PROGRESS, true, false);
+
+        List<Rect> frames = runFrames(view.mDirtyRegion);
+        assertTrue(frames.size() > 1);
+        assertContinuous(frames,
+                toViewX(view.progress2Coord(START_PROGRESS)),
+                toViewX(view.progress2Coord(MAX_PROGRESS - START_PROGRESS)));
+    }
+
+    @Test
+    public void spaceSegments_invalidateTheWholeView() {
+        RecordingSpaceProgressView view = new RecordingSpaceProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        view.setProgressArray(2, new long[]{500, MAX_PROGRESS}, new int[]{0xFF888888, 0xFF888888},
+                new int[]{0xFFFF0000, 0xFFFF0000}, new int[]{0xFFD9D9D9, 0xFFD9D9D9});
+        ProgressViewBenchmark.layout(view);
+        view.setProgress(START_PROGRESS);
+        view.mDirtyRegion.reset();
+        view.setProgress(START_PROGRESS + 1);
+
+        // the colors of the segments depend on the progress
+        assertTrue(view.mDirtyRegion.mFullCount > 0);
+    }
+
+    private static void assertFullInvalidates(RecordingGiftProgressView view, long progress, boolean full) {
+        view.mDirtyRegion.reset();
+        view.setProgress(progress);
+        assertEquals("progress " + progress, full, view.mDirtyRegion.mFullCount > 0);
+        assertFalse("progress " + progress, view.mDirtyRegion.getPartialUnion().isEmpty());
+    }
+
+    /**
+     * Deliver the frames of the running animation.
+     *
+     * @param dirtyRegion the region invalidated by the view
+     * @return the partial region of every frame
+     */
+    private List<Rect> runFrames(DirtyRegion dirtyRegion) {
+        List<Rect> frames = new ArrayList<>();
+        dirtyRegion.reset();
+        while (mFrameSource.runFrame()) {
+            assertEquals(0, dirtyRegion.mFullCount);
+            frames.add(dirtyRegion.getPartialUnion());
+            dirtyRegion.reset();
+        }
+        return frames;
+    }
+
+    /**
+     * Assert the first frame covers the start, the last frame covers the end and every frame
+     * overlaps the one before, so no position of the fill end was left out.
+     */
+    private static void assertContinuous(List<Rect> frames, int startX, int endX) {
+        assertTrue(frames.get(0).contains(startX, VIEW_HEIGHT / 2));
+        assertTrue(frames.get(frames.size() - 1).contains(endX, VIEW_HEIGHT / 2));
+        for (int i = 0; i < frames.size(); i++) {
+            Rect frame = frames.get(i);
+            assertFalse("frame " + i, frame.isEmpty());
+            assertTrue("frame " + i + " width " + frame.width(), frame.width() < VIEW_WIDTH / 2);
+            if (i > 0) {
+                Rect previous = frames.get(i - 1);
+                assertTrue("frame " + i, frame.intersects(previous.left, previous.top,
+                        previous.right, previous.bottom));
+            }
+        }
+    }
+
+    private static int toViewX(float coord) {
+        return (int) coord + VIEW_WIDTH / 2;
+    }
+
+    /**
+     * The rects passed to {@link android.view.View#invalidate(Rect)} and the count of
+     * calls to {@link android.view.View#invalidate()}.
+     */
+    private static final class DirtyRegion {
+
+        private final List<Rect> mPartialRects = new ArrayList<>();
+        private int mFullCount;
+
+        void reset() {
+            mPartialRects.clear();
+            mFullCount = 0;
+        }
+
+        Rect getPartialUnion() {
+            Rect union = new Rect();
+            for (int i = 0; i < mPartialRects.size(); i++) {
+                union.union(mPartialRects.get(i));
+            }
+            return union;
+        }
+    }
+
+    private static final class RecordingGiftProgressView extends GiftProgressView {
+
+        // null while the super constructor invalidates
+        private final DirtyRegion mDirtyRegion = new DirtyRegion();
+
+        RecordingGiftProgressView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            if (null != mDirtyRegion) {
+                mDirtyRegion.mFullCount++;
+            }
+        }
+
+        @Override
+        public void invalidate(Rect dirty) {
+            super.invalidate(dirty);
+            if (null != mDirtyRegion) {
+                mDirtyRegion.mPartialRects.add(new Rect(dirty));
+            }
+        }
+    }
+
+    private static final class RecordingSpaceProgressView extends SpaceProgressView {
+
+        private final DirtyRegion mDirtyRegion = new DirtyRegion();
+
+        RecordingSpaceProgressView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            if (null != mDirtyRegion) {
+                mDirtyRegion.mFullCount++;
+            }
+        }
+
+        @Override
+        public void invalidate(Rect dirty) {
+            super.invalidate(dirty);
+            if (null != mDirtyRegion) {
+                mDirtyRegion.mPartialRects.add(new Rect(dirty));
+            }
+        }
+    }
+
+    private static final class ManualFrameSource implements ProgressAnimationEngine.FrameSource {
+
+        private long mNow;
+        private ProgressAnimationEngine mPosted;
+
+        @Override
+        public long now() {
+            return mNow;
+        }
+
+        @Override
+        public void postFrame(ProgressAnimationEngine engine) {
+            mPosted = engine;
+        }
+
+        boolean runFrame() {
+            if (null == mPosted) {
+                return false;
+            }
+            ProgressAnimationEngine engine = mPosted;
+            mPosted = null;
+            mNow += FRAME_NANOS;
+            engine.doFrame(mNow);
+            return true;
+        }
+    }
+}
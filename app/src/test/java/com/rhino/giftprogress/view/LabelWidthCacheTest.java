@@ -0,0 +1,56 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.Paint;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link LabelWidthCache}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class LabelWidthCacheTest {
+
+    @Test
+    public void measureText_sameLabel_hits() {
+        LabelWidthCache cache = new LabelWidthCache();
+        cache.resize(4);
+        Paint paint = new Paint();
+        cache.measureText(paint, 1, 10, "10人");
+        // an equal string built again still hits
+        cache.measureText(paint, 1, 10, new StringBuilder("10").append("人").toString());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void measureText_otherLabelInSlot_misses() {
+        LabelWidthCache cache = new LabelWidthCache();
+        cache.resize(4);
+        Paint paint = new Paint();
+        cache.measureText(paint, 1, 10, "10人");
+        cache.measureText(paint, 1, 20, "20人");
+        cache.measureText(paint, 1, 20, "twenty");
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void resize_sameCount_keepsWidths() {
+        LabelWidthCache cache = new LabelWidthCache();
+        cache.resize(4);
+        Paint paint = new Paint();
+        cache.measureText(paint, 3, 10, "10人");
+        cache.resize(4);
+        cache.measureText(paint, 3, 10, "10人");
+        assertEquals(1, cache.getHitCount());
+    }
+}
@@ -0,0 +1,53 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the index math of {@link MarkerInterval}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class MarkerIntervalTest {
+
+    @Test
+    public void count_lastMarkerBeforeLast() {
+        MarkerInterval interval = new MarkerInterval(0, 105, 10);
+        assertEquals(11, interval.getCount());
+        assertEquals(100, interval.getLast());
+        assertEquals(30, interval.progressAt(3));
+    }
+
+    @Test
+    public void ceilAndFloorIndex() {
+        MarkerInterval interval = new MarkerInterval(0, 100, 10);
+        assertEquals(0, interval.ceilIndex(-5));
+        assertEquals(1, interval.ceilIndex(5));
+        assertEquals(1, interval.ceilIndex(10));
+        assertEquals(11, interval.ceilIndex(101));
+        assertEquals(-1, interval.floorIndex(-1));
+        assertEquals(1, interval.floorIndex(15));
+        assertEquals(10, interval.floorIndex(1000));
+    }
+
+    @Test
+    public void fullLongRange() {
+        MarkerInterval interval = new MarkerInterval(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+        assertEquals(1L << 62, interval.getCount());
+        assertEquals(Long.MAX_VALUE - 3, interval.getLast());
+        assertEquals(0, interval.progressAt(interval.floorIndex(0)));
+        assertEquals(4, interval.progressAt(interval.ceilIndex(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyMarkers() {
+        new MarkerInterval(Long.MIN_VALUE, Long.MAX_VALUE, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepNotPositive() {
+        new MarkerInterval(0, 10, 0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the animation engine and the motions, stepped with a manual frame source.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class ProgressAnimationEngineTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    private ManualFrameSource mFrameSource;
+    private ProgressAnimationEngine mEngine;
+    private RecordingCallback mCallback;
+
+    @Before
+    public void setUp() {
+        mFrameSource = new ManualFrameSource();
+        mEngine = new ProgressAnimationEngine(mFrameSource);
+        mCallback = new RecordingCallback();
+    }
+
+    @Test
+    public void decelerate_reachesTargetAfterDuration() {
+        ProgressMotion motion = ProgressMotion.decelerate(400);
+        assertTrue(mEngine.animate(motion, 0, 100, mCallback));
+        mFrameSource.runFrames(12);
+        // 200 ms of the decelerate curve 1 - (1 - t)^2
+        assertEquals(75, motion.getPosition(), 1);
+        mFrameSource.runFrames(20);
+        assertFalse(motion.isRunning());
+        assertEquals(100, motion.getPosition(), 0);
+        assertEquals(1, mCallback.mEndCount);
+    }
+
+    @Test
+    public void spring_settlesAtTarget() {
+        ProgressMotion motion = ProgressMotion.spring(400, 0.5f);
+        mEngine.animate(motion, 0, 100, mCallback);
+        float max = 0;
+        for (int i = 0; i < 300 && motion.isRunning(); i++) {
+            mFrameSource.runFrames(1);
+            max = Math.max(max, motion.getPosition());
+        }
+        assertFalse(motion.isRunning());
+        assertEquals(100, motion.getPosition(), 0);
+        assertTrue("an underdamped spring overshoots", max > 100);
+    }
+
+    @Test
+    public void retarget_keepsPositionAndVelocity() {
+        ProgressMotion[] motions = {ProgressMotion.spring(300, 1), ProgressMotion.decelerate(400)};
+        for (ProgressMotion motion : motions) {
+            mEngine.animate(motion, 0, 100, mCallback);
+            mFrameSource.runFrames(5);
+            float position = motion.getPosition();
+            float velocity = motion.getVelocity();
+            assertFalse(mEngine.animate(motion, 0, 200, mCallback));
+            assertEquals(position, motion.getPosition(), 0);
+            assertEquals(velocity, motion.getVelocity(), Math.abs(velocity) * 1e-3f);
+            mFrameSource.runFrames(1);
+            assertTrue(motion.getPosition() > position);
+        }
+    }
+
+    @Test
+    public void oneFrameCallbackForAllMotions() {
+        for (int i = 0; i < 100; i++) {
+            mEngine.animate(ProgressMotion.decelerate(400), 0, 100, mCallback);
+        }
+        assertEquals(1, mFrameSource.mPostCount);
+        mFrameSource.runFrames(3);
+        assertEquals(4, mFrameSource.mPostCount);
+        assertEquals(300, mCallback.mUpdateCount);
+    }
+
+    @Test
+    public void cancel_endsOnceAsCanceled() {
+        ProgressMotion motion = ProgressMotion.decelerate(400);
+        mEngine.animate(motion, 0, 100, mCallback);
+        mFrameSource.runFrames(2);
+        mEngine.cancel(motion);
+        mEngine.cancel(motion);
+        assertFalse(motion.isRunning());
+        assertEquals(1, mCallback.mEndCount);
+        assertTrue(mCallback.mCanceled);
+        assertEquals(0, mEngine.getRunningCount());
+    }
+
+    private static final class ManualFrameSource implements ProgressAnimationEngine.FrameSource {
+
+        private long mNow;
+        private int mPostCount;
+        private ProgressAnimationEngine mPosted;
+
+        @Override
+        public long now() {
+            return mNow;
+        }
+
+        @Override
+        public void postFrame(ProgressAnimationEngine engine) {
+            mPostCount++;
+            mPosted = engine;
+        }
+
+        void runFrames(int count) {
+            for (int i = 0; i < count && null != mPosted; i++) {
+                ProgressAnimationEngine engine = mPosted;
+                mPosted = null;
+                mNow += FRAME_NANOS;
+                engine.doFrame(mNow);
+            }
+        }
+    }
+
+    private static final class RecordingCallback implements ProgressAnimationEngine.Callback {
+
+        private int mUpdateCount;
+        private int mEndCount;
+        private boolean mCanceled;
+
+        @Override
+        public void onUpdate(ProgressMotion motion) {
+            mUpdateCount++;
+        }
+
+        @Override
+        public void onEnd(ProgressMotion motion, boolean canceled) {
+            mEndCount++;
+            mCanceled = canceled;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of posting progress through {@link ProgressCoalescer}, it is applied once per frame
+ * and survives the view being detached.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ProgressCoalescerTest {
+
+    private static final int COUNT = 100;
+
+    @Before
+    public void setUp() {
+        // run the posted updates only when the test idles the main looper
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @After
+    public void tearDown() {
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void postFromWorker_whileDetached_appliedAfterReattach() throws Exception {
+        final GiftProgressView view = ProgressViewBenchmark.createGiftProgressView(COUNT);
+        view.onDetachedFromWindow();
+        postFromWorker(view, 42);
+        view.onAttachedToWindow();
+        ShadowLooper.idleMainLooper();
+        assertEquals(42, view.getProgress());
+
+        // the next update is not dropped
+        postFromWorker(view, 60);
+        ShadowLooper.idleMainLooper();
+        assertEquals(60, view.getProgress());
+    }
+
+    @Test
+    public void pending_keptOverDetach_postedAgainOnAttach() {
+        SpaceProgressView view = ProgressViewBenchmark.createSpaceProgressView(COUNT);
+        long progress = view.getProgress();
+        view.postProgress(42);
+        view.onDetachedFromWindow();
+        ShadowLooper.idleMainLooper();
+        assertEquals(progress, view.getProgress());
+
+        view.onAttachedToWindow();
+        ShadowLooper.idleMainLooper();
+        assertEquals(42, view.getProgress());
+    }
+
+    @Test
+    public void postsBetweenTwoFrames_dispatchedOnce() throws Exception {
+        GiftProgressView view = ProgressViewBenchmark.createGiftProgressView(COUNT);
+        ManualFrameSource frameSource = new ManualFrameSource();
+        view.setAnimationEngine(new ProgressAnimationEngine(frameSource));
+        final int[] dispatches = new int[1];
+        view.setOnProgressChangedListener(new GiftProgressView.OnProgressChangedListener() {
+            @Override
+            public void onChanged(GiftProgressView progressView, boolean fromUser, boolean isFinished) {
+                dispatches[0]++;
+            }
+        });
+
+        view.postProgress(10);
+        postFromWorker(view, 20);
+        view.postProgress(30);
+        postFromWorker(view, 40);
+        // the hop of the worker to the main looper does not apply the update yet
+        ShadowLooper.idleMainLooper();
+        assertEquals(0, dispatches[0]);
+
+        assertTrue(frameSource.runFrame());
+        assertEquals(1, dispatches[0]);
+        assertEquals(40, view.getProgress());
+        assertFalse(frameSource.runFrame());
+
+        view.postProgress(50);
+        postFromWorker(view, 60);
+        ShadowLooper.idleMainLooper();
+        assertTrue(frameSource.runFrame());
+        assertEquals(2, dispatches[0]);
+        assertEquals(60, view.getProgress());
+    }
+
+    private static void postFromWorker(final GiftProgressView view, final long progress) throws InterruptedException {
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                view.postProgress(progress);
+            }
+        });
+        worker.start();
+        worker.join();
+    }
+
+    private static final class ManualFrameSource implements ProgressAnimationEngine.FrameSource {
+
+        private static final long FRAME_NANOS = 16000000L;
+
+        private long mNow;
+        private ProgressAnimationEngine mPosted;
+
+        @Override
+        public long now() {
+            return mNow;
+        }
+
+        @Override
+        public void postFrame(ProgressAnimationEngine engine) {
+            mPosted = engine;
+        }
+
+        boolean runFrame() {
+            if (null == mPosted) {
+                return false;
+            }
+            ProgressAnimationEngine engine = mPosted;
+            mPosted = null;
+            mNow += FRAME_NANOS;
+            engine.doFrame(mNow);
+            return true;
+        }
+    }
+}
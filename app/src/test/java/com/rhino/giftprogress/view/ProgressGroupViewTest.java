@@ -0,0 +1,137 @@
+package com.rhino.giftprogress.view;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link ProgressGroupView}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ProgressGroupViewTest {
+
+    private static final int BAR_COUNT = 50;
+    private static final int ROW_HEIGHT = 60;
+    private static final int VIEW_WIDTH = 1080;
+    private static final long FRAME_NANOS = 16666667L;
+
+    private ProgressAnimationEngine mEngine;
+    private boolean mFramePosted;
+
+    @Before
+    public void setUp() {
+        mEngine = new ProgressAnimationEngine(new ProgressAnimationEngine.FrameSource() {
+            @Override
+            public long now() {
+                return 0;
+            }
+
+            @Override
+            public void postFrame(ProgressAnimationEngine engine) {
+                mFramePosted = true;
+            }
+        });
+    }
+
+    @Test
+    public void setProgress_bulk_animatesWithOneMotion() {
+        ProgressGroupView view = createView();
+        view.setProgress(createIds(), createValues(), true);
+        assertTrue(view.isAnimating());
+        assertEquals(1, mEngine.getRunningCount());
+
+        long now = 0;
+        for (int i = 0; i < 60 && mFramePosted; i++) {
+            mFramePosted = false;
+            now += FRAME_NANOS;
+            mEngine.doFrame(now);
+        }
+        assertFalse(view.isAnimating());
+        assertEquals(0, mEngine.getRunningCount());
+        for (int id = 0; id < BAR_COUNT; id++) {
+            assertEquals(id * 2, view.getProgress(id));
+        }
+    }
+
+    @Test
+    public void setProgress_clampsToRange() {
+        ProgressGroupView view = createView();
+        view.setRange(3, 10, 20);
+        view.setProgress(new int[]{2, 3}, new long[]{500, 5});
+        assertEquals(100, view.getProgress(2));
+        assertEquals(10, view.getProgress(3));
+    }
+
+    @Test
+    public void draw_onlyRowsInClip() {
+        ProgressGroupView view = createView();
+        view.setProgress(createIds(), createValues());
+        CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, BAR_COUNT * ROW_HEIGHT);
+        view.draw(canvas);
+        // bar 0 is empty, so only its background is drawn
+        assertEquals(BAR_COUNT * 2 - 1, canvas.getDrawCount());
+
+        canvas.reset();
+        canvas.setClip(0, 10 * ROW_HEIGHT, VIEW_WIDTH, 20 * ROW_HEIGHT);
+        view.draw(canvas);
+        assertEquals(20, canvas.getDrawCount());
+
+        // a view taller than its rows draws nothing below the last row
+        view.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec((BAR_COUNT + 10) * ROW_HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, VIEW_WIDTH, (BAR_COUNT + 10) * ROW_HEIGHT);
+        canvas.reset();
+        canvas.setClip(0, (BAR_COUNT + 2) * ROW_HEIGHT, VIEW_WIDTH, (BAR_COUNT + 5) * ROW_HEIGHT);
+        view.draw(canvas);
+        assertEquals(0, canvas.getDrawCount());
+    }
+
+    @Test
+    public void detach_finishesAnimation() {
+        ProgressGroupView view = createView();
+        view.setProgress(createIds(), createValues(), true);
+        view.onDetachedFromWindow();
+        assertFalse(view.isAnimating());
+        assertEquals(0, mEngine.getRunningCount());
+    }
+
+    private ProgressGroupView createView() {
+        ProgressGroupView view = new ProgressGroupView(RuntimeEnvironment.application);
+        view.setAnimationEngine(mEngine);
+        view.setRowHeight(ROW_HEIGHT);
+        view.setBarCount(BAR_COUNT);
+        view.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, VIEW_WIDTH, view.getMeasuredHeight());
+        return view;
+    }
+
+    private static int[] createIds() {
+        int[] ids = new int[BAR_COUNT];
+        for (int i = 0; i < BAR_COUNT; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    private static long[] createValues() {
+        long[] values = new long[BAR_COUNT];
+        for (int i = 0; i < BAR_COUNT; i++) {
+            values[i] = i * 2;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,76 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the long progress math at extreme ranges.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class ProgressMathTest {
+
+    @Test
+    public void difference_isExactBeyondFloatPrecision() {
+        long base = 3000000000L;
+        assertEquals(1d, ProgressMath.difference(base + 1, base), 0);
+        long big = (1L << 53) + 1;
+        assertEquals(1d, ProgressMath.difference(big, big - 1), 0);
+    }
+
+    @Test
+    public void difference_doesNotOverflow() {
+        assertEquals((double) Long.MAX_VALUE - (double) Long.MIN_VALUE,
+                ProgressMath.difference(Long.MAX_VALUE, Long.MIN_VALUE), 0);
+        assertEquals((double) Long.MIN_VALUE - (double) Long.MAX_VALUE,
+                ProgressMath.difference(Long.MIN_VALUE, Long.MAX_VALUE), 0);
+    }
+
+    @Test
+    public void fraction_keepsSingleStepsAtLargeValues() {
+        long min = 1L << 40;
+        long max = min + 1000;
+        assertEquals(0d, ProgressMath.fraction(min, min, max), 0);
+        assertEquals(0.001d, ProgressMath.fraction(min + 1, min, max), 1e-12);
+        assertEquals(0.5d, ProgressMath.fraction(min + 500, min, max), 1e-12);
+        assertEquals(1d, ProgressMath.fraction(max, min, max), 0);
+    }
+
+    @Test
+    public void fraction_fullLongRange() {
+        assertEquals(0d, ProgressMath.fraction(Long.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE), 0);
+        assertEquals(0.5d, ProgressMath.fraction(0, Long.MIN_VALUE, Long.MAX_VALUE), 1e-12);
+        assertEquals(1d, ProgressMath.fraction(Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE), 0);
+    }
+
+    @Test
+    public void fraction_emptyRange() {
+        assertEquals(0d, ProgressMath.fraction(5, 5, 5), 0);
+        assertEquals(0d, ProgressMath.fraction(5, 10, 5), 0);
+    }
+
+    @Test
+    public void progressAt_roundTrips() {
+        long min = 5000000000L;
+        long max = min + 1000;
+        for (long progress = min; progress <= max; progress += 7) {
+            assertEquals(progress, ProgressMath.progressAt(ProgressMath.fraction(progress, min, max), min, max));
+        }
+    }
+
+    @Test
+    public void progressAt_isClamped() {
+        assertEquals(Long.MIN_VALUE, ProgressMath.progressAt(-1, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, ProgressMath.progressAt(2, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, ProgressMath.progressAt(1 - 1e-17, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void progressAt_fullLongRangeDoesNotWrap() {
+        long progress = ProgressMath.progressAt(0.999999, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertTrue("progress " + progress, progress > 0);
+    }
+}
@@ -0,0 +1,144 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the progress scales and the table they are compiled into.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+public class ProgressScaleTest {
+
+    private static final int LENGTH = 900;
+
+    @Test
+    public void log_startsAtZero() {
+        ProgressScale scale = ProgressScale.log();
+        assertEquals(0d, scale.position(0), 0);
+        assertEquals(0d, scale.position(-5), 0);
+        assertEquals(1d, scale.position(Math.E - 1), 1e-12);
+    }
+
+    @Test
+    public void breakpoints_giveEveryIntervalTheSameLength() {
+        ProgressScale scale = ProgressScale.breakpoints(10, 50, 200, 1000);
+        assertEquals(0d, scale.position(10), 0);
+        assertEquals(1d, scale.position(50), 0);
+        assertEquals(0.5d, scale.position(30), 1e-12);
+        assertEquals(2.5d, scale.position(600), 1e-12);
+        assertEquals(3d, scale.position(1000), 0);
+    }
+
+    @Test
+    public void piecewise_extendsBeyondTheEnds() {
+        ProgressScale scale = ProgressScale.piecewise(new double[]{0, 10}, new double[]{0, 100});
+        assertEquals(-50d, scale.position(-5), 1e-12);
+        assertEquals(150d, scale.position(15), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void piecewise_rejectsDescendingProgress() {
+        ProgressScale.piecewise(new double[]{0, 10, 5}, new double[]{0, 1, 2});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void piecewise_rejectsMismatchedPoints() {
+        ProgressScale.piecewise(new double[]{0, 10}, new double[]{0, 1, 2});
+    }
+
+    @Test
+    public void table_smallRange_isExact() {
+        ProgressScale scale = ProgressScale.breakpoints(10, 50, 200, 1000);
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(scale, 10, 1000, LENGTH);
+        assertEquals(-LENGTH / 2f, table.progress2Coord(10), 0);
+        assertEquals(LENGTH / 3f - LENGTH / 2f, table.progress2Coord(50), 1e-3f);
+        assertEquals(LENGTH / 2f, table.progress2Coord(1000), 0);
+        for (long progress = 10; progress <= 1000; progress++) {
+            float expected = (float) (LENGTH * scale.position(progress) / 3 - LENGTH / 2d);
+            assertEquals(expected, table.progress2Coord(progress), 1e-3f);
+        }
+    }
+
+    @Test
+    public void table_largeRange_isInterpolated() {
+        ProgressScale scale = ProgressScale.breakpoints(0, 1000, 1000000);
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(scale, 0, 1000000, LENGTH);
+        // linear between the samples after the last breakpoint
+        assertEquals(LENGTH * 0.75f - LENGTH / 2f, table.progress2Coord(500500), 1e-2f);
+
+        ProgressScale square = new ProgressScale() {
+            @Override
+            public double position(double progress) {
+                return progress * progress;
+            }
+        };
+        table.compile(square, 0, 1000000, LENGTH);
+        for (long progress = 0; progress <= 1000000; progress += 997) {
+            float expected = (float) (LENGTH * ((double) progress * progress / 1e12) - LENGTH / 2d);
+            // one sample spans about 977 values, a smooth scale stays well within a pixel
+            assertEquals(expected, table.progress2Coord(progress), 0.05f);
+        }
+    }
+
+    @Test
+    public void table_largeRange_lowTiersStayOnTheirBreakpoints() {
+        double[] tiers = {0, 10, 50, 200, 1000, 5000, 20000, 100000};
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(ProgressScale.breakpoints(tiers), 0, 100000, 1000);
+        for (int i = 0; i < tiers.length; i++) {
+            float expected = 1000f * i / (tiers.length - 1) - 500;
+            assertEquals("tier " + tiers[i], expected, table.progress2Coord((long) tiers[i]), 1f);
+        }
+        // halfway into the first tier
+        assertEquals(1000f / 14 - 500, table.progress2Coord(5), 1f);
+    }
+
+    @Test
+    public void table_logOverAHugeRange_keepsTheSmallValues() {
+        long max = 1000000000L;
+        ProgressScale scale = ProgressScale.log();
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(scale, 0, max, 1000);
+        for (long progress = 1; progress <= max; progress *= 10) {
+            float expected = (float) (1000 * scale.position(progress) / scale.position(max) - 500);
+            assertEquals("progress " + progress, expected, table.progress2Coord(progress), 1f);
+        }
+        long inverse = table.coord2Progress(table.progress2Coord(1000));
+        assertEquals(1000, inverse, 1000 * 0.01);
+    }
+
+    @Test
+    public void table_clampsToTheTrack() {
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(ProgressScale.log(), 0, 100, LENGTH);
+        assertEquals(-LENGTH / 2f, table.progress2Coord(-10), 0);
+        assertEquals(LENGTH / 2f, table.progress2Coord(200), 0);
+        assertEquals(0, table.coord2Progress(-LENGTH));
+        assertEquals(100, table.coord2Progress(LENGTH));
+    }
+
+    @Test
+    public void coord2Progress_smallRange_invertsExactly() {
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(ProgressScale.log(), 0, 1000, LENGTH);
+        for (long progress = 0; progress <= 1000; progress++) {
+            assertEquals(progress, table.coord2Progress(table.progress2Coord(progress)));
+        }
+    }
+
+    @Test
+    public void coord2Progress_largeRange_invertsWithinOneSample() {
+        long max = 1000000;
+        ProgressScaleTable table = new ProgressScaleTable();
+        table.compile(ProgressScale.breakpoints(0, 1000, max), 0, max, LENGTH);
+        for (long progress = 0; progress <= max; progress += 997) {
+            long inverse = table.coord2Progress(table.progress2Coord(progress));
+            assertEquals(progress, inverse, max / 1024d);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the progress engine shared by the progress views, without a View.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ProgressTrackTest {
+
+    private ProgressTrack mTrack;
+
+    @Before
+    public void setUp() {
+        mTrack = new ProgressTrack(6, 6, 0xFFD9D9D9, 0xFFFB7E16);
+        mTrack.setRange(0, 100);
+        mTrack.setSize(1100, 100);
+    }
+
+    @Test
+    public void setSize_centersTrackAndEmptiesFill() {
+        assertEquals(1000, mTrack.getLength());
+        assertEquals(-500, mTrack.getBackgroundRect().left);
+        assertEquals(500, mTrack.getBackgroundRect().right);
+        assertEquals(-6, mTrack.getBackgroundRect().top);
+        assertEquals(6, mTrack.getBackgroundRect().bottom);
+        assertEquals(-500, mTrack.getFillRect().right);
+        assertFalse(mTrack.setSize(0, 100));
+        assertEquals(1000, mTrack.getLength());
+    }
+
+    @Test
+    public void progress2Coord_trackProgress_roundTrip() {
+        assertEquals(-500f, mTrack.progress2Coord(0), 0);
+        assertEquals(0f, mTrack.progress2Coord(50), 0);
+        assertEquals(500f, mTrack.progress2Coord(100), 0);
+        for (long progress = 0; progress <= 100; progress++) {
+            assertEquals(progress, mTrack.trackProgress(mTrack.progress2Coord(progress)));
+        }
+        assertEquals(0, mTrack.trackProgress(-600));
+        assertEquals(100, mTrack.trackProgress(600));
+    }
+
+    @Test
+    public void setRange_unchanged_returnsFalse() {
+        assertFalse(mTrack.setRange(0, 100));
+        assertTrue(mTrack.setRange(0, 200));
+        assertEquals(0f, mTrack.progress2Coord(100), 0);
+    }
+
+    @Test
+    public void clampProgress() {
+        assertEquals(0, mTrack.clampProgress(-1));
+        assertEquals(42, mTrack.clampProgress(42));
+        assertEquals(100, mTrack.clampProgress(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void moveFill_pastEnd_setsProgressToMax() {
+        mTrack.setProgress(50);
+        assertFalse(mTrack.moveFill(10));
+        assertEquals(10, mTrack.getFillRect().right);
+        assertEquals(50, mTrack.getProgress());
+        assertTrue(mTrack.moveFill(700));
+        assertEquals(500, mTrack.getFillRect().right);
+        assertEquals(100, mTrack.getProgress());
+        assertTrue(mTrack.moveFill(-700));
+        assertEquals(0, mTrack.getProgress());
+    }
+
+    @Test
+    public void checkCoord_clampsToTrack() {
+        assertEquals(-500f, mTrack.checkCoord(-501), 0);
+        assertEquals(12.5f, mTrack.checkCoord(12.5f), 0);
+        assertEquals(500f, mTrack.checkCoord(501), 0);
+    }
+
+    @Test
+    public void nextPixelIndex_skipsMarkersAtSamePixel() {
+        mTrack.setRange(0, 1000000);
+        MarkerInterval interval = new MarkerInterval(0, 1000000, 1);
+        long index = interval.ceilIndex(600000);
+        int x = (int) mTrack.progress2Coord(interval.progressAt(index));
+        long next = mTrack.nextPixelIndex(interval, index, x);
+        assertTrue(next > index);
+        assertEquals(x, (int) mTrack.progress2Coord(interval.progressAt(next)));
+        assertTrue((int) mTrack.progress2Coord(interval.progressAt(next + 1)) > x);
+    }
+
+    @Test
+    public void getGeneratedCount_atMostOnePerPixel() {
+        assertEquals(0, mTrack.getGeneratedCount(null));
+        assertEquals(11, mTrack.getGeneratedCount(new MarkerInterval(0, 100, 10)));
+        assertEquals(1000, mTrack.getGeneratedCount(new MarkerInterval(0, 100000, 1)));
+    }
+}
@@ -0,0 +1,540 @@
+package com.rhino.giftprogress.view;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Paint;
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmarks of the progress views, run with
+ * {@code ./gradlew :app:testDebugUnitTest -Pbenchmark --tests '*Benchmark'}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ProgressViewBenchmark {
+
+    private static final int[] MARKER_COUNTS = {10, 100, 1000, 10000};
+    private static final int[] GENERATED_MARKER_COUNTS = {1000, 10000, 100000};
+    private static final int[] RENDER_THREAD_COUNTS = {1, 2, 4};
+    private static final int RENDER_MARKER_COUNT = 20;
+    private static final int IMAGES_PER_THREAD = 500;
+    private static final int[] BAR_COUNTS = {10, 50, 200};
+    private static final int[] LABEL_COUNTS = {10, 64, 100, 1000};
+    private static final int ROW_HEIGHT = 60;
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 180;
+
+    private static final Benchmark sBenchmark = new Benchmark("ProgressViewBenchmark");
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(Benchmark.isEnabled());
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        sBenchmark.write();
+    }
+
+    @Test
+    public void giftProgressViewDraw() {
+        for (int count : MARKER_COUNTS) {
+            final GiftProgressView view = createGiftProgressView(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+            sBenchmark.measure("GiftProgressView.onDraw", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    view.draw(canvas);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void spaceProgressViewDraw() {
+        for (int count : MARKER_COUNTS) {
+            final SpaceProgressView view = createSpaceProgressView(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+            sBenchmark.measure("SpaceProgressView.drawProgress", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    view.draw(canvas);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void generatedMarkersDraw() {
+        for (int count : GENERATED_MARKER_COUNTS) {
+            final SpaceProgressView view = createGeneratedSpaceProgressView(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+            sBenchmark.measure("SpaceProgressView.drawGenerated", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    view.draw(canvas);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void progress2Coord() {
+        for (final int count : MARKER_COUNTS) {
+            final SpaceProgressView view = createSpaceProgressView(count);
+            sBenchmark.measure("SpaceProgressView.progress2Coord", count, null, new Runnable() {
+                @Override
+                public void run() {
+                    float sum = 0;
+                    for (int i = 0; i <= count; i++) {
+                        sum += view.progress2Coord(i);
+                    }
+                    consume(sum);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void coord2Progress() {
+        for (final int count : MARKER_COUNTS) {
+            final SpaceProgressView view = createSpaceProgressView(count);
+            final float halfLength = (VIEW_WIDTH - 100) / 2f;
+            sBenchmark.measure("SpaceProgressView.coord2Progress", count, null, new Runnable() {
+                @Override
+                public void run() {
+                    long sum = 0;
+                    for (int i = 0; i <= count; i++) {
+                        sum += view.coord2Progress(-halfLength + 2 * halfLength * i / count);
+                    }
+                    consume(sum);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void setProgressBurst() {
+        for (final int count : MARKER_COUNTS) {
+            final GiftProgressView view = createGiftProgressView(count);
+            sBenchmark.measure("GiftProgressView.setProgress", count, null, new Runnable() {
+                private int mProgress;
+
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100; i++) {
+                        mProgress = (mProgress + 1) % count;
+                        view.setProgress(mProgress, true, false);
+                    }
+                }
+            });
+        }
+    }
+
+    @Test
+    public void bindRow() {
+        for (final int count : MARKER_COUNTS) {
+            final SpaceProgressConfig config = SpaceProgressBindTest.createConfig(count);
+            final SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+            layout(view);
+            sBenchmark.measure("SpaceProgressView.bind", count, null, new Runnable() {
+                private int mProgress;
+
+                @Override
+                public void run() {
+                    mProgress = (mProgress + 1) % count;
+                    view.bind(config, mProgress);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void rebuildRow() {
+        for (final int count : MARKER_COUNTS) {
+            final SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+            layout(view);
+            view.setMinProgress(0);
+            view.setMaxProgress(count);
+            sBenchmark.measure("SpaceProgressView.setProgressList", count, null, new Runnable() {
+                private int mProgress;
+
+                @Override
+                public void run() {
+                    // what a row did before bind: rebuild the lists and animate
+                    List<SpaceProgressView.Progress> progressList = new ArrayList<>(count);
+                    List<SpaceProgressView.ProgressSpace> progressSpaceList = new ArrayList<>(count);
+                    for (int i = 1; i <= count; i++) {
+                        progressList.add(new SpaceProgressView.Progress(i, 0xFF888888, 0xFFFF0000, 0xFFD9D9D9));
+                        progressSpaceList.add(new SpaceProgressView.ProgressSpace(i, 4, 0xFFFFFFFF));
+                    }
+                    view.setProgressList(progressList);
+                    view.setProgressSpaceList(progressSpaceList);
+                    mProgress = (mProgress + 1) % count;
+                    view.setProgress(mProgress, true);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void rendererDraw() {
+        final GiftProgressRenderer renderer = new GiftProgressRenderer.Builder().build();
+        for (final int count : MARKER_COUNTS) {
+            final GiftProgressConfig config = createGiftProgressConfig(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+            sBenchmark.measure("GiftProgressRenderer.draw", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    renderer.draw(canvas, VIEW_WIDTH, VIEW_HEIGHT, config, count / 2);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void rendererThroughput() throws Exception {
+        final GiftProgressRenderer renderer = new GiftProgressRenderer.Builder().build();
+        final GiftProgressConfig config = createGiftProgressConfig(RENDER_MARKER_COUNT);
+        for (int threads : RENDER_THREAD_COUNTS) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    tasks.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            Bitmap bitmap = Bitmap.createBitmap(VIEW_WIDTH, VIEW_HEIGHT, Bitmap.Config.ARGB_8888);
+                            for (int i = 0; i < IMAGES_PER_THREAD; i++) {
+                                renderer.render(config, i % (RENDER_MARKER_COUNT + 1), bitmap);
+                            }
+                            return null;
+                        }
+                    });
+                }
+                // warm up every thread before measuring
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+                long startNanos = System.nanoTime();
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+                sBenchmark.recordThroughput("GiftProgressRenderer.imagesPerSecond", threads,
+                        (long) threads * IMAGES_PER_THREAD, System.nanoTime() - startNanos);
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void measureTextDirect() {
+        for (int count : LABEL_COUNTS) {
+            final String[] labels = createLabels(count);
+            final Paint paint = new Paint();
+            paint.setTextSize(GiftPainter.TEXT_SIZE);
+            sBenchmark.measure("Paint.measureText", count, null, new Runnable() {
+                @Override
+                public void run() {
+                    float sum = 0;
+                    for (String label : labels) {
+                        sum += paint.measureText(label);
+                    }
+                    consume(sum);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void measureTextCached() {
+        for (int count : LABEL_COUNTS) {
+            final String[] labels = createLabels(count);
+            final Paint paint = new Paint();
+            paint.setTextSize(GiftPainter.TEXT_SIZE);
+            final TextMeasureCache cache = new TextMeasureCache();
+            sBenchmark.measure("TextMeasureCache.measureText", count, null, new Runnable() {
+                @Override
+                public void run() {
+                    float sum = 0;
+                    for (String label : labels) {
+                        sum += cache.measureText(paint, label);
+                    }
+                    consume(sum);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void measureTextLabelSlots() {
+        for (int count : LABEL_COUNTS) {
+            final String[] labels = createLabels(count);
+            final Paint paint = new Paint();
+            paint.setTextSize(GiftPainter.TEXT_SIZE);
+            final LabelWidthCache cache = new LabelWidthCache();
+            cache.resize(count);
+            sBenchmark.measure("LabelWidthCache.measureText", count, null, new Runnable() {
+                @Override
+                public void run() {
+                    float sum = 0;
+                    for (int i = 0; i < labels.length; i++) {
+                        sum += cache.measureText(paint, i, i, labels[i]);
+                    }
+                    consume(sum);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void generatedLabelsDraw() {
+        for (int count : LABEL_COUNTS) {
+            final GiftProgressView view = createGeneratedGiftProgressView(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+            sBenchmark.measure("GiftProgressView.drawGeneratedLabels", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    view.draw(canvas);
+                }
+            });
+        }
+    }
+
+    static GiftProgressView createGeneratedGiftProgressView(int count) {
+        GiftProgressView view = new GiftProgressView(RuntimeEnvironment.application);
+        view.setMinProgress(0);
+        view.setMaxProgress(count);
+        view.setProgressTextGenerator(new MarkerInterval(1, count, 1),
+                new MarkerInterval.Style<GiftProgressView.ProgressText>() {
+                    @Override
+                    public void onStyle(GiftProgressView.ProgressText marker, long index) {
+                        marker.textColor = 0xFF888888;
+                    }
+                });
+        layout(view);
+        view.setProgress(count / 2);
+        return view;
+    }
+
+    static String[] createLabels(int count) {
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = (i + 1) + "人";
+        }
+        return labels;
+    }
+
+    @Test
+    public void groupDraw() {
+        for (int count : BAR_COUNTS) {
+            final ProgressGroupView group = createProgressGroupView(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, count * ROW_HEIGHT);
+            sBenchmark.measure("ProgressGroupView.onDraw", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    group.draw(canvas);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void separateViewsDraw() {
+        for (int count : BAR_COUNTS) {
+            final SpaceProgressView[] views = createBarViews(count);
+            final CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, ROW_HEIGHT);
+            sBenchmark.measure("SpaceProgressView.onDraw.bars", count, canvas, new Runnable() {
+                @Override
+                public void run() {
+                    for (SpaceProgressView view : views) {
+                        view.draw(canvas);
+                    }
+                }
+            });
+        }
+    }
+
+    @Test
+    public void groupSetProgress() {
+        for (final int count : BAR_COUNTS) {
+            final ProgressGroupView group = createProgressGroupView(count);
+            final int[] ids = new int[count];
+            final long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = i;
+            }
+            sBenchmark.measure("ProgressGroupView.setProgress", count, null, new Runnable() {
+                private int mProgress;
+
+                @Override
+                public void run() {
+                    mProgress = (mProgress + 1) % 100;
+                    Arrays.fill(values, mProgress);
+                    group.setProgress(ids, values, true);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void separateViewsSetProgress() {
+        for (final int count : BAR_COUNTS) {
+            final SpaceProgressView[] views = createBarViews(count);
+            sBenchmark.measure("SpaceProgressView.setProgress.bars", count, null, new Runnable() {
+                private int mProgress;
+
+                @Override
+                public void run() {
+                    mProgress = (mProgress + 1) % 100;
+                    for (SpaceProgressView view : views) {
+                        view.setProgress(mProgress, true);
+                    }
+                }
+            });
+        }
+    }
+
+    static ProgressGroupView createProgressGroupView(int count) {
+        ProgressGroupView group = new ProgressGroupView(RuntimeEnvironment.application);
+        group.setRowHeight(ROW_HEIGHT);
+        group.setBarCount(count);
+        for (int i = 0; i < count; i++) {
+            group.setProgress(i, (i * 7) % 100);
+        }
+        group.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(count * ROW_HEIGHT, View.MeasureSpec.EXACTLY));
+        group.layout(0, 0, VIEW_WIDTH, count * ROW_HEIGHT);
+        return group;
+    }
+
+    /**
+     * Create one plain bar view per row, what a dashboard did before {@link ProgressGroupView}.
+     */
+    static SpaceProgressView[] createBarViews(int count) {
+        SpaceProgressView[] views = new SpaceProgressView[count];
+        for (int i = 0; i < count; i++) {
+            SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+            view.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(ROW_HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, VIEW_WIDTH, ROW_HEIGHT);
+            view.setProgress((i * 7) % 100);
+            views[i] = view;
+        }
+        return views;
+    }
+
+    static GiftProgressConfig createGiftProgressConfig(int count) {
+        ColorDrawable drawable = new ColorDrawable(0xFFFB7E16);
+        List<GiftProgressView.TopDrawable> topDrawableList = new ArrayList<>();
+        List<GiftProgressView.ProgressSpace> progressSpaceList = new ArrayList<>();
+        List<GiftProgressView.ProgressText> progressTextList = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            topDrawableList.add(new GiftProgressView.TopDrawable(i, drawable, 50, 50));
+            progressSpaceList.add(new GiftProgressView.ProgressSpace(i, 4, 0xFFFFFFFF));
+            progressTextList.add(new GiftProgressView.ProgressText(i, i + "人", 0xFF888888));
+        }
+        return new GiftProgressConfig.Builder()
+                .setRange(0, count)
+                .setTopDrawableList(topDrawableList)
+                .setProgressSpaceList(progressSpaceList)
+                .setProgressTextList(progressTextList)
+                .build();
+    }
+
+    static GiftProgressView createGiftProgressView(int count) {
+        Context context = RuntimeEnvironment.application;
+        GiftProgressView view = new GiftProgressView(context);
+        view.setConfig(createGiftProgressConfig(count));
+        layout(view);
+        view.setProgress(count / 2);
+        return view;
+    }
+
+    static SpaceProgressView createSpaceProgressView(int count) {
+        Context context = RuntimeEnvironment.application;
+        SpaceProgressView view = new SpaceProgressView(context);
+        long[] progress = new long[count];
+        int[] preColors = new int[count];
+        int[] currColors = new int[count];
+        int[] nextColors = new int[count];
+        int[] widths = new int[count];
+        int[] spaceColors = new int[count];
+        for (int i = 0; i < count; i++) {
+            progress[i] = i + 1;
+            preColors[i] = 0xFF888888;
+            currColors[i] = 0xFFFF0000;
+            nextColors[i] = 0xFFD9D9D9;
+            widths[i] = 4;
+            spaceColors[i] = 0xFFFFFFFF;
+        }
+        view.setMinProgress(0);
+        view.setMaxProgress(count);
+        view.setProgressArray(count, progress, preColors, currColors, nextColors);
+        view.setProgressSpaceArray(count, progress, widths, spaceColors);
+        layout(view);
+        view.setProgress(count / 2);
+        return view;
+    }
+
+    static SpaceProgressView createGeneratedSpaceProgressView(int count) {
+        Context context = RuntimeEnvironment.application;
+        SpaceProgressView view = new SpaceProgressView(context);
+        MarkerInterval interval = new MarkerInterval(1, count, 1);
+        view.setMinProgress(0);
+        view.setMaxProgress(count);
+        view.setProgressGenerator(interval, new MarkerInterval.Style<SpaceProgressView.Progress>() {
+            @Override
+            public void onStyle(SpaceProgressView.Progress marker, long index) {
+                marker.progressPreColor = 0xFF888888;
+                marker.progressCurrColor = 0xFFFF0000;
+                marker.progressNextColor = 0xFFD9D9D9;
+            }
+        });
+        view.setProgressSpaceGenerator(interval, new MarkerInterval.Style<SpaceProgressView.ProgressSpace>() {
+            @Override
+            public void onStyle(SpaceProgressView.ProgressSpace marker, long index) {
+                marker.spaceWidth = 4;
+                marker.spaceColor = 0xFFFFFFFF;
+            }
+        });
+        layout(view);
+        view.setProgress(count / 2);
+        return view;
+    }
+
+    static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(VIEW_HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+
+    private static volatile float sSink;
+
+    static void consume(float value) {
+        sSink = value;
+    }
+}
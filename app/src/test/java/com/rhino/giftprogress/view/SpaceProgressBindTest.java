@@ -0,0 +1,118 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of binding {@link SpaceProgressView} rows to a shared {@link SpaceProgressConfig}.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class SpaceProgressBindTest {
+
+    private static final int COUNT = 100;
+
+    private ProgressAnimationEngine mEngine;
+    private SpaceProgressConfig mConfig;
+
+    @Before
+    public void setUp() {
+        // frames are never delivered, so a started animation keeps running
+        mEngine = new ProgressAnimationEngine(new ProgressAnimationEngine.FrameSource() {
+            @Override
+            public long now() {
+                return 0;
+            }
+
+            @Override
+            public void postFrame(ProgressAnimationEngine engine) {
+            }
+        });
+        mConfig = createConfig(COUNT);
+    }
+
+    @Test
+    public void bind_sameConfig_sharesCoordinates() {
+        SpaceProgressView first = createView();
+        SpaceProgressView second = createView();
+        first.bind(mConfig, 10);
+        second.bind(mConfig, 90);
+        assertSame(first.getProgressStartCoords(), second.getProgressStartCoords());
+        assertEquals(10, first.getProgress());
+        assertEquals(90, second.getProgress());
+    }
+
+    @Test
+    public void bind_doesNotAnimate() {
+        SpaceProgressView view = createView();
+        view.bind(mConfig, 10);
+        view.setProgress(80, true);
+        assertEquals(1, mEngine.getRunningCount());
+        view.bind(mConfig, 50);
+        assertEquals(0, mEngine.getRunningCount());
+        assertEquals(50, view.getProgress());
+    }
+
+    @Test
+    public void detach_finishesAnimation() {
+        SpaceProgressView view = createView();
+        view.bind(mConfig, 10);
+        view.setProgress(80, true);
+        assertEquals(1, mEngine.getRunningCount());
+        view.onDetachedFromWindow();
+        assertEquals(0, mEngine.getRunningCount());
+        assertEquals(80, view.getProgress());
+    }
+
+    @Test
+    public void setProgressArray_afterBind_stopsSharing() {
+        SpaceProgressView first = createView();
+        SpaceProgressView second = createView();
+        first.bind(mConfig, 10);
+        second.bind(mConfig, 10);
+        long[] progress = {COUNT};
+        int[] colors = {0xFF888888};
+        second.setProgressArray(1, progress, colors, colors, colors);
+        assertNotSame(first.getProgressStartCoords(), second.getProgressStartCoords());
+    }
+
+    private SpaceProgressView createView() {
+        SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+        view.setAnimationEngine(mEngine);
+        ProgressViewBenchmark.layout(view);
+        return view;
+    }
+
+    static SpaceProgressConfig createConfig(int count) {
+        long[] progress = new long[count];
+        int[] preColors = new int[count];
+        int[] currColors = new int[count];
+        int[] nextColors = new int[count];
+        int[] widths = new int[count];
+        int[] spaceColors = new int[count];
+        for (int i = 0; i < count; i++) {
+            progress[i] = i + 1;
+            preColors[i] = 0xFF888888;
+            currColors[i] = 0xFFFF0000;
+            nextColors[i] = 0xFFD9D9D9;
+            widths[i] = 4;
+            spaceColors[i] = 0xFFFFFFFF;
+        }
+        return new SpaceProgressConfig.Builder()
+                .setRange(0, count)
+                .setProgressArray(count, progress, preColors, currColors, nextColors)
+                .setProgressSpaceArray(count, progress, widths, spaceColors)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.rhino.giftprogress.view;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the order of the progress segments of {@link SpaceProgressView}, the lookups of
+ * the segments need them in ascending order.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class SpaceProgressOrderTest {
+
+    private static final int VIEW_WIDTH = 1080;
+    private static final long MAX_PROGRESS = 100;
+    private static final long[] SORTED = {20, 50, 70, 100};
+    private static final long[] SHUFFLED = {70, 20, 100, 50};
+
+    @Test
+    public void setProgressList_outOfOrder_sameAsSorted() {
+        SpaceProgressView sorted = createView(SORTED);
+        SpaceProgressView shuffled = createView(SHUFFLED);
+
+        int[] sortedCoords = sorted.getProgressStartCoords();
+        int[] shuffledCoords = shuffled.getProgressStartCoords();
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals("segment " + i, sortedCoords[i], shuffledCoords[i]);
+        }
+        for (int coord = -VIEW_WIDTH / 2; coord <= VIEW_WIDTH / 2; coord += 10) {
+            assertEquals("coord " + coord, sorted.coord2Progress(coord), shuffled.coord2Progress(coord));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setProgressArray_outOfOrder_throws() {
+        SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+        int[] colors = new int[SHUFFLED.length];
+        view.setProgressArray(SHUFFLED.length, SHUFFLED, colors, colors, colors);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void configSetProgressArray_outOfOrder_throws() {
+        int[] colors = new int[SHUFFLED.length];
+        new SpaceProgressConfig.Builder()
+                .setProgressArray(SHUFFLED.length, SHUFFLED, colors, colors, colors);
+    }
+
+    private static SpaceProgressView createView(long[] progress) {
+        SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(MAX_PROGRESS);
+        List<SpaceProgressView.Progress> list = new ArrayList<>();
+        for (long value : progress) {
+            // the colors follow the progress, so a sorted copy draws the same
+            int color = 0xFF000000 | (int) value;
+            list.add(new SpaceProgressView.Progress(value, color, color, color));
+        }
+        view.setProgressList(list);
+        ProgressViewBenchmark.layout(view);
+        return view;
+    }
+}
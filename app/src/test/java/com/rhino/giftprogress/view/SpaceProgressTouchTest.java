@@ -0,0 +1,122 @@
+package com.rhino.giftprogress.view;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of dragging the progress of {@link SpaceProgressView}, it only takes the touch when
+ * asked to and leaves a vertical move to a scrolling parent.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class SpaceProgressTouchTest {
+
+    private static final long MAX_PROGRESS = 1000;
+    private static final float DOWN_X = 300;
+    private static final float DOWN_Y = 90;
+
+    private SpaceProgressView mView;
+    private RecordingParent mParent;
+    private int mTouchSlop;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        mView = new SpaceProgressView(context);
+        mView.setMaxProgress(MAX_PROGRESS);
+        mParent = new RecordingParent(context);
+        mParent.addView(mView);
+        ProgressViewBenchmark.layout(mView);
+    }
+
+    @Test
+    public void notSeekable_touchNotConsumed() {
+        assertFalse(touch(MotionEvent.ACTION_DOWN, DOWN_X, DOWN_Y));
+        assertEquals(0, mView.getProgress());
+    }
+
+    @Test
+    public void disabled_touchNotConsumed() {
+        mView.setSeekable(true);
+        mView.setEnabled(false);
+        assertFalse(touch(MotionEvent.ACTION_DOWN, DOWN_X, DOWN_Y));
+        assertEquals(0, mView.getProgress());
+    }
+
+    @Test
+    public void verticalMove_leftToParent() {
+        mView.setSeekable(true);
+        assertTrue(touch(MotionEvent.ACTION_DOWN, DOWN_X, DOWN_Y));
+        touch(MotionEvent.ACTION_MOVE, DOWN_X + mTouchSlop + 1, DOWN_Y + 4 * mTouchSlop);
+        touch(MotionEvent.ACTION_CANCEL, DOWN_X + mTouchSlop + 1, DOWN_Y + 4 * mTouchSlop);
+
+        assertFalse(mParent.mDisallowIntercept);
+        assertEquals(0, mView.getProgress());
+    }
+
+    @Test
+    public void horizontalDrag_takesTouchPastSlop() {
+        mView.setSeekable(true);
+        assertTrue(touch(MotionEvent.ACTION_DOWN, DOWN_X, DOWN_Y));
+        touch(MotionEvent.ACTION_MOVE, DOWN_X + mTouchSlop, DOWN_Y);
+        assertFalse(mParent.mDisallowIntercept);
+        assertEquals(0, mView.getProgress());
+
+        touch(MotionEvent.ACTION_MOVE, DOWN_X + 4 * mTouchSlop, DOWN_Y + mTouchSlop);
+        assertTrue(mParent.mDisallowIntercept);
+        long dragged = mView.getProgress();
+        assertTrue(dragged > 0);
+
+        touch(MotionEvent.ACTION_UP, 2 * DOWN_X, DOWN_Y);
+        assertTrue(mView.getProgress() > dragged);
+    }
+
+    @Test
+    public void clickable_tapSetsProgress() {
+        mView.setClickable(true);
+        assertTrue(touch(MotionEvent.ACTION_DOWN, DOWN_X, DOWN_Y));
+        assertTrue(touch(MotionEvent.ACTION_UP, DOWN_X, DOWN_Y));
+
+        assertFalse(mParent.mDisallowIntercept);
+        assertTrue(mView.getProgress() > 0);
+    }
+
+    private boolean touch(int action, float x, float y) {
+        MotionEvent event = MotionEvent.obtain(0, 0, action, x, y, 0);
+        boolean handled = mView.onTouchEvent(event);
+        event.recycle();
+        return handled;
+    }
+
+    private static final class RecordingParent extends FrameLayout {
+
+        private boolean mDisallowIntercept;
+
+        RecordingParent(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+            super.requestDisallowInterceptTouchEvent(disallowIntercept);
+            mDisallowIntercept = disallowIntercept;
+        }
+    }
+}
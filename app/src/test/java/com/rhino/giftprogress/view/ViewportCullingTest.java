@@ -0,0 +1,109 @@
+package com.rhino.giftprogress.view;
+
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the markers outside the clip bounds are not drawn.
+ *
+ * @author rhino
+ * @since Create on 2026/10/18.
+ **/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ViewportCullingTest {
+
+    private static final int MARKER_COUNT = 1000;
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 180;
+    private static final int WIDE_MARKER_WIDTH = 400;
+
+    @Test
+    public void giftProgressView_partiallyVisible_drawsFewerOps() {
+        GiftProgressView view = ProgressViewBenchmark.createGiftProgressView(MARKER_COUNT);
+        long full = countDrawOps(view, VIEW_WIDTH);
+        long quarter = countDrawOps(view, VIEW_WIDTH / 4);
+        assertTrue("full " + full + ", quarter " + quarter, quarter * 3 < full);
+    }
+
+    @Test
+    public void spaceProgressView_partiallyVisible_drawsFewerOps() {
+        SpaceProgressView view = ProgressViewBenchmark.createSpaceProgressView(MARKER_COUNT);
+        long full = countDrawOps(view, VIEW_WIDTH);
+        long quarter = countDrawOps(view, VIEW_WIDTH / 4);
+        assertTrue("full " + full + ", quarter " + quarter, quarter * 3 < full);
+    }
+
+    @Test
+    public void generatedMarkers_partiallyVisible_drawFewerOps() {
+        SpaceProgressView view = ProgressViewBenchmark.createGeneratedSpaceProgressView(MARKER_COUNT);
+        long full = countDrawOps(view, VIEW_WIDTH);
+        long quarter = countDrawOps(view, VIEW_WIDTH / 4);
+        assertTrue("full " + full + ", quarter " + quarter, quarter * 3 < full);
+    }
+
+    @Test
+    public void generatedMarkerReachingIntoClip_drawnOnFirstFrame() {
+        // the marker is centered at 500, the clip starts a quarter of its width right of it
+        GiftProgressView view = createWideMarkerView();
+        long withMarker = countDrawOps(view, VIEW_WIDTH / 2 + WIDE_MARKER_WIDTH / 4, VIEW_WIDTH);
+        view.setTopDrawableGenerator(null, null);
+        long withoutMarker = countDrawOps(view, VIEW_WIDTH / 2 + WIDE_MARKER_WIDTH / 4, VIEW_WIDTH);
+        assertTrue("with " + withMarker + ", without " + withoutMarker, withMarker > withoutMarker);
+    }
+
+    @Test
+    public void generatedSpaceReachingIntoClip_drawnOnFirstFrame() {
+        SpaceProgressView view = new SpaceProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(1000);
+        ProgressViewBenchmark.layout(view);
+        view.setProgressSpaceGenerator(new MarkerInterval(500, 500, 1),
+                new MarkerInterval.Style<SpaceProgressView.ProgressSpace>() {
+                    @Override
+                    public void onStyle(SpaceProgressView.ProgressSpace marker, long index) {
+                        marker.spaceWidth = WIDE_MARKER_WIDTH;
+                        marker.spaceColor = 0xFFFFFFFF;
+                    }
+                });
+        long withSpace = countDrawOps(view, VIEW_WIDTH / 2 + WIDE_MARKER_WIDTH / 4, VIEW_WIDTH);
+        view.setProgressSpaceGenerator(null, null);
+        long withoutSpace = countDrawOps(view, VIEW_WIDTH / 2 + WIDE_MARKER_WIDTH / 4, VIEW_WIDTH);
+        assertTrue("with " + withSpace + ", without " + withoutSpace, withSpace > withoutSpace);
+    }
+
+    private static GiftProgressView createWideMarkerView() {
+        final ColorDrawable drawable = new ColorDrawable(0xFFFF0000);
+        GiftProgressView view = new GiftProgressView(RuntimeEnvironment.application);
+        view.setMaxProgress(1000);
+        view.setTopDrawableGenerator(new MarkerInterval(500, 500, 1),
+                new MarkerInterval.Style<GiftProgressView.TopDrawable>() {
+                    @Override
+                    public void onStyle(GiftProgressView.TopDrawable marker, long index) {
+                        marker.drawable = drawable;
+                        marker.width = WIDE_MARKER_WIDTH;
+                        marker.height = 20;
+                    }
+                });
+        ProgressViewBenchmark.layout(view);
+        return view;
+    }
+
+    private static long countDrawOps(View view, int visibleWidth) {
+        return countDrawOps(view, 0, visibleWidth);
+    }
+
+    private static long countDrawOps(View view, int visibleLeft, int visibleRight) {
+        CountingCanvas canvas = new CountingCanvas(VIEW_WIDTH, VIEW_HEIGHT);
+        canvas.setClip(visibleLeft, 0, visibleRight, VIEW_HEIGHT);
+        view.draw(canvas);
+        return canvas.getDrawCount();
+    }
+}